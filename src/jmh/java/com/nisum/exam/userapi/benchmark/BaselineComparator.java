@@ -0,0 +1,104 @@
+package com.nisum.exam.userapi.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compara un resultado JSON de JMH contra la línea base guardada en el repositorio y termina con
+ * código 1 si algún benchmark empeoró más que la tolerancia, en tiempo o en bytes reservados por
+ * operación (gc.alloc.rate.norm, disponible cuando se ejecuta con -prof gc).
+ * Un cambio solo cuenta como regresión si además los intervalos de confianza (scoreConfidence, 99,9%)
+ * de ambas mediciones no se superponen; así el ruido de la medición no se informa como regresión.
+ * Solo se comparan los benchmarks presentes en ambos archivos.
+ * <p>
+ * Argumentos: archivo base, archivo nuevo y tolerancia opcional (0.25 = 25%).
+ */
+public final class BaselineComparator {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    // Diferencia mínima en bytes por operación que se considera un cambio real
+    private static final double ALLOCATION_SLACK_BYTES = 16;
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: BaselineComparator <base.json> <resultado.json> [tolerancia]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.25;
+
+        Map<String, JsonNode> baseline = read(args[0]);
+        Map<String, JsonNode> current = read(args[1]);
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode base = baseline.get(entry.getKey());
+            if (base == null) {
+                continue;
+            }
+            JsonNode result = entry.getValue();
+            boolean higherIsBetter = "thrpt".equals(result.path("mode").asText());
+
+            JsonNode basePrimary = base.path("primaryMetric");
+            JsonNode primary = result.path("primaryMetric");
+            double baseScore = basePrimary.path("score").asDouble();
+            double score = primary.path("score").asDouble();
+            double change = baseScore == 0 ? 0 : (score - baseScore) / baseScore;
+            boolean slower = (higherIsBetter ? change < -tolerance : change > tolerance)
+                    && (higherIsBetter ? isBelow(primary, basePrimary) : isBelow(basePrimary, primary));
+
+            JsonNode baseAllocationMetric = base.path("secondaryMetrics").path(ALLOCATION_METRIC);
+            JsonNode allocationMetric = result.path("secondaryMetrics").path(ALLOCATION_METRIC);
+            double baseAllocation = baseAllocationMetric.path("score").asDouble(Double.NaN);
+            double allocation = allocationMetric.path("score").asDouble(Double.NaN);
+            boolean moreAllocation = !Double.isNaN(baseAllocation) && !Double.isNaN(allocation)
+                    && allocation - baseAllocation > Math.max(ALLOCATION_SLACK_BYTES, baseAllocation * tolerance)
+                    && isBelow(baseAllocationMetric, allocationMetric);
+
+            System.out.printf("%-90s %12.3f -> %12.3f %s (%+.1f%%)  alloc %10.1f -> %10.1f B/op%s%n",
+                    entry.getKey(), baseScore, score, primary.path("scoreUnit").asText(),
+                    change * 100, baseAllocation, allocation,
+                    slower || moreAllocation ? "  REGRESIÓN" : "");
+            if (slower || moreAllocation) {
+                regressions++;
+            }
+        }
+
+        if (regressions > 0) {
+            System.err.println(regressions + " benchmark(s) empeoraron más de " + Math.round(tolerance * 100) + "%");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Indica si el intervalo de confianza de la primera métrica queda completamente por debajo del de la segunda.
+     * Si JMH no pudo calcular el intervalo (una sola iteración) se usa el puntaje.
+     */
+    private static boolean isBelow(JsonNode lower, JsonNode upper) {
+        return bound(lower, 1) < bound(upper, 0);
+    }
+
+    private static double bound(JsonNode metric, int index) {
+        double value = metric.path("scoreConfidence").path(index).asDouble(Double.NaN);
+        return Double.isNaN(value) ? metric.path("score").asDouble() : value;
+    }
+
+    private static Map<String, JsonNode> read(String path) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(new File(path))) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            result.path("params").fields().forEachRemaining(param ->
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+}
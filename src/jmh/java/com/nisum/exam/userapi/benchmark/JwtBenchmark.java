@@ -0,0 +1,63 @@
+package com.nisum.exam.userapi.benchmark;
+
+import com.nisum.exam.userapi.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la generación y validación de tokens en JwtUtil. legacyValidate reproduce la validación
+ * anterior, que decodificaba el secreto y verificaba la firma dos veces por llamada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(3)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final String SECRET = "5YbV1DrDnNiY8UBoXQzo7huhj7d+/GCEbqYHOrFzVSH0cTYIKHq8hxkHD0+AhSE9YWFx3BQkgl1JCR90sdi9XQ==";
+
+    private static final String EMAIL = "camilo.arevalo@gmail.cl";
+
+    private JwtUtil jwtUtil;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 10_000);
+        token = jwtUtil.generateToken(EMAIL);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(EMAIL);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token, EMAIL);
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public boolean legacyValidate() {
+        Claims subjectClaims = Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody();
+        Claims expirationClaims = Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody();
+        return subjectClaims.getSubject().equals(EMAIL) && !expirationClaims.getExpiration().before(new Date());
+    }
+}
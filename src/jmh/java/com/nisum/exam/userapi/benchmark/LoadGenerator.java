@@ -0,0 +1,123 @@
+package com.nisum.exam.userapi.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prueba de carga HTTP contra la aplicación ya iniciada, con un número fijo de clientes concurrentes
+ * que envían peticiones sin pausa. Imprime el throughput y los percentiles de latencia para comparar
+ * el pool de hilos de plataforma de Tomcat con spring.threads.virtual.enabled=true.
+ * <p>
+ * Argumentos: url, método (GET o POST), clientes concurrentes, segundos de medición y segundos de
+ * calentamiento opcionales (5 por defecto). Con POST cada petición crea un usuario con un email distinto.
+ */
+public final class LoadGenerator {
+
+    private static final String USER_TEMPLATE = "{\"name\":\"Carga\",\"email\":\"load-%d-%d@load.cl\","
+            + "\"password\":\"123Acb144*\",\"phones\":[{\"number\":\"1234567\",\"citycode\":\"1\",\"countrycode\":\"57\"}]}";
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 4) {
+            System.err.println("Uso: LoadGenerator <url> <GET|POST> <clientes> <segundos> [segundos de calentamiento]");
+            System.exit(2);
+        }
+        URI uri = URI.create(args[0]);
+        boolean post = "POST".equalsIgnoreCase(args[1]);
+        int clients = Integer.parseInt(args[2]);
+        long seconds = Long.parseLong(args[3]);
+        long warmupSeconds = args.length > 4 ? Long.parseLong(args[4]) : 5;
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        long start = System.nanoTime();
+        long measureFrom = start + Duration.ofSeconds(warmupSeconds).toNanos();
+        long deadline = measureFrom + Duration.ofSeconds(seconds).toNanos();
+
+        List<long[]> latencies = new ArrayList<>();
+        Map<String, AtomicLong> statuses = new ConcurrentHashMap<>();
+        CountDownLatch finished = new CountDownLatch(clients);
+
+        for (int client = 0; client < clients; client++) {
+            long[] samples = new long[1024];
+            latencies.add(samples);
+            int clientId = client;
+            Thread worker = new Thread(() -> {
+                long[] recorded = samples;
+                int count = 0;
+                long sequence = 0;
+                try {
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = post
+                                ? HttpRequest.newBuilder(uri)
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(String.format(USER_TEMPLATE, clientId, sequence++)))
+                                .build()
+                                : HttpRequest.newBuilder(uri).GET().build();
+
+                        long sent = System.nanoTime();
+                        String status;
+                        try {
+                            status = String.valueOf(httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+                        } catch (Exception ex) {
+                            status = ex.getClass().getSimpleName();
+                        }
+                        long received = System.nanoTime();
+
+                        if (sent >= measureFrom && received <= deadline) {
+                            if (count == recorded.length) {
+                                recorded = Arrays.copyOf(recorded, count * 2);
+                            }
+                            recorded[count++] = received - sent;
+                            statuses.computeIfAbsent(status, key -> new AtomicLong()).incrementAndGet();
+                        }
+                    }
+                } finally {
+                    synchronized (latencies) {
+                        latencies.set(clientId, Arrays.copyOf(recorded, count));
+                    }
+                    finished.countDown();
+                }
+            }, "load-" + client);
+            worker.start();
+        }
+        finished.await();
+
+        long[] all;
+        synchronized (latencies) {
+            all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        }
+        if (all.length == 0) {
+            System.err.println("No se completó ninguna petición durante la medición");
+            System.exit(1);
+        }
+
+        System.out.printf("%s %s con %d clientes durante %d s%n", args[1].toUpperCase(), uri, clients, seconds);
+        System.out.printf("peticiones: %d, throughput: %.1f req/s%n", all.length, all.length / (double) seconds);
+        System.out.printf("latencia ms  p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f%n",
+                percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), percentile(all, 0.999),
+                all[all.length - 1] / 1e6);
+        System.out.println("respuestas: " + new TreeMap<>(statuses));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,123 @@
+package com.nisum.exam.userapi.benchmark;
+
+import com.nisum.exam.userapi.dto.response.UserResponseDTO;
+import com.nisum.exam.userapi.entity.PhoneEntity;
+import com.nisum.exam.userapi.entity.UserEntity;
+import com.nisum.exam.userapi.mapper.UserMapper;
+import com.nisum.exam.userapi.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Mide las conversiones de UserMapper que se ejecutan por cada usuario en el listado,
+ * la transmisión NDJSON, el alta y la actualización. Un usuario con tres teléfonos.
+ * writeRoundTrip reproduce la conversión anterior del alta y la actualización (modelo a entidad,
+ * entidad guardada a modelo y modelo a respuesta) para compararla con writeDirect; con -prof gc
+ * la diferencia en gc.alloc.rate.norm es la memoria que se deja de reservar por solicitud.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(3)
+@State(Scope.Thread)
+public class MapperBenchmark {
+
+    private UserEntity userEntity;
+
+    private User user;
+
+    private User userWithoutPhones;
+
+    @Setup
+    public void setUp() {
+        userEntity = new UserEntity();
+        userEntity.setId(UUID.randomUUID());
+        userEntity.setName("Camilo Arevalo");
+        userEntity.setEmail("camilo.arevalo@gmail.cl");
+        userEntity.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6jZ5yC9oVhYb2O6GkTe3hKO");
+        userEntity.setCreated(LocalDate.now());
+        userEntity.setLastLogin(LocalDate.now());
+        userEntity.setToken("eyJhbGciOiJIUzUxMiJ9.eyJzdWIiOiJjYW1pbG9AZ21haWwuY2wifQ.signature");
+        userEntity.setIsActive(true);
+        List<PhoneEntity> phones = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            PhoneEntity phoneEntity = new PhoneEntity();
+            phoneEntity.setId((long) i);
+            phoneEntity.setNumber("123456" + i);
+            phoneEntity.setCityCode("1");
+            phoneEntity.setCountryCode("57");
+            phoneEntity.setUser(userEntity);
+            phones.add(phoneEntity);
+        }
+        userEntity.setPhones(phones);
+
+        user = UserMapper.toUserModel(userEntity);
+        // toUserEntity ya convierte los teléfonos; writeRoundTrip los convierte aparte como antes
+        userWithoutPhones = UserMapper.toUserModel(userEntity);
+        userWithoutPhones.setPhones(null);
+    }
+
+    @Benchmark
+    public User toUserModel() {
+        return UserMapper.toUserModel(userEntity);
+    }
+
+    @Benchmark
+    public UserEntity toUserEntity() {
+        return UserMapper.toUserEntity(user);
+    }
+
+    @Benchmark
+    public UserResponseDTO toUserResponseDTO() {
+        return UserMapper.toUserResponseDTO(user);
+    }
+
+    @Benchmark
+    public UserResponseDTO entityToResponse() {
+        return UserMapper.toUserResponseDTO(UserMapper.toUserModel(userEntity));
+    }
+
+    @Benchmark
+    public UserResponseDTO entityToResponseDirect() {
+        return UserMapper.toUserResponseDTO(userEntity);
+    }
+
+    @Benchmark
+    public UserResponseDTO writeRoundTrip() {
+        UserEntity saved = UserMapper.toUserEntity(userWithoutPhones);
+        saved.setPhones(user.getPhones().stream().map(phone -> {
+            PhoneEntity phoneEntity = new PhoneEntity();
+            phoneEntity.setNumber(phone.getNumber());
+            phoneEntity.setCityCode(phone.getCitycode());
+            phoneEntity.setCountryCode(phone.getCountrycode());
+            // La conversión anterior creaba una entidad de usuario por teléfono que luego se reemplazaba
+            UserEntity owner = new UserEntity();
+            owner.setId(phone.getUserId());
+            phoneEntity.setUser(owner);
+            phoneEntity.setUser(saved);
+            return phoneEntity;
+        }).collect(Collectors.toList()));
+        return UserMapper.toUserResponseDTO(UserMapper.toUserModel(saved));
+    }
+
+    @Benchmark
+    public UserResponseDTO writeDirect() {
+        return UserMapper.toUserResponseDTO(UserMapper.toUserEntity(user));
+    }
+}
@@ -0,0 +1,114 @@
+package com.nisum.exam.userapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.nisum.exam.userapi.config.JacksonConfig;
+import com.nisum.exam.userapi.dto.response.PhoneResponseDTO;
+import com.nisum.exam.userapi.dto.response.UserResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Mide la serialización del listado de usuarios (10.000 usuarios con dos teléfonos) con el ObjectMapper
+ * configurado como en la aplicación: todos los campos o solo id, name y email (parámetro fields), con y sin
+ * Blackbird, y el costo de comprimir la respuesta con gzip. Al iniciar imprime el tamaño de cada variante.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    private static final int USERS = 10_000;
+
+    @Param({"all", "id,name,email"})
+    private String fields;
+
+    @Param({"true", "false"})
+    private boolean blackbird;
+
+    private List<UserResponseDTO> users;
+
+    private ObjectWriter writer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        new JacksonConfig().userFieldsFilterCustomizer().customize(builder);
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        ObjectMapper objectMapper = builder.build();
+        writer = objectMapper.writer(JacksonConfig.userFieldsFilter("all".equals(fields) ? null : Set.of(fields.split(","))));
+
+        users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(buildUser("user" + i + "@benchmark.cl"));
+        }
+
+        byte[] json = toJson();
+        System.out.printf("%nfields=%s: %d bytes, %d bytes con gzip%n", fields, json.length, toGzip().length);
+    }
+
+    @Benchmark
+    public byte[] toJson() throws IOException {
+        return writer.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] toGzip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            writer.writeValue(gzip, users);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static UserResponseDTO buildUser(String email) {
+        List<PhoneResponseDTO> phones = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            phones.add(PhoneResponseDTO.builder()
+                    .number("123456" + i)
+                    .citycode("1")
+                    .countrycode("57")
+                    .build());
+        }
+        return UserResponseDTO.builder()
+                .id(UUID.randomUUID())
+                .name("Benchmark")
+                .email(email)
+                .created(LocalDate.now())
+                .modified(LocalDate.now())
+                .lastLogin(LocalDate.now())
+                .token("eyJhbGciOiJIUzUxMiJ9.eyJzdWIiOiJjYW1pbG9AZ21haWwuY2wifQ.signature")
+                .isActive(true)
+                .phones(phones)
+                .build();
+    }
+}
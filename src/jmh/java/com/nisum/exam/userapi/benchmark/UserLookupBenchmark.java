@@ -0,0 +1,130 @@
+package com.nisum.exam.userapi.benchmark;
+
+import com.nisum.exam.userapi.NisumExamUserApiApplication;
+import com.nisum.exam.userapi.dto.response.UserResponseDTO;
+import com.nisum.exam.userapi.entity.PhoneEntity;
+import com.nisum.exam.userapi.entity.UserEntity;
+import com.nisum.exam.userapi.repository.UserRepository;
+import com.nisum.exam.userapi.service.UserServiceInterface;
+import com.nisum.exam.userapi.util.UuidGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Compara la búsqueda de un usuario por id y por email con la proyección de una sola consulta contra
+ * recorrer el listado completo y filtrarlo, que era la única forma de obtener un usuario. Inicia la
+ * aplicación sin servidor web sobre H2 en memoria con la cantidad de usuarios indicada, cada uno con dos
+ * teléfonos. La cache de segundo nivel se desactiva para medir las consultas y no la cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserLookupBenchmark {
+
+    @Param({"1000", "10000"})
+    private int users;
+
+    private ConfigurableApplicationContext context;
+
+    private UserServiceInterface userService;
+
+    private List<UserEntity> seeded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(NisumExamUserApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:lookup-benchmark",
+                        "spring.r2dbc.url=r2dbc:h2:mem:///lookup-benchmark",
+                        "persistence.cache.enabled=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run();
+        userService = context.getBean(UserServiceInterface.class);
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        seeded = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            seeded.add(buildUserEntity("user" + i + "@benchmark.cl"));
+        }
+        userRepository.saveAll(seeded);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserResponseDTO getUserById() {
+        return userService.getUser(randomUser().getId());
+    }
+
+    @Benchmark
+    public UserResponseDTO getUserByEmail() {
+        return userService.getUserByEmail(randomUser().getEmail());
+    }
+
+    @Benchmark
+    public UserResponseDTO filterFullList() {
+        UUID id = randomUser().getId();
+        AtomicReference<UserResponseDTO> found = new AtomicReference<>();
+        userService.streamUsers(user -> {
+            if (user.getId().equals(id)) {
+                found.set(user);
+            }
+        });
+        return found.get();
+    }
+
+    private UserEntity randomUser() {
+        return seeded.get(ThreadLocalRandom.current().nextInt(seeded.size()));
+    }
+
+    private static UserEntity buildUserEntity(String email) {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setId(UuidGenerator.timeOrdered());
+        userEntity.setName("Benchmark");
+        userEntity.setEmail(email);
+        userEntity.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6jZ5yC9oVhYb2O6GkTe3hKO");
+        userEntity.setCreated(LocalDate.now());
+        userEntity.setToken("token");
+        userEntity.setIsActive(true);
+        List<PhoneEntity> phones = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            PhoneEntity phoneEntity = new PhoneEntity();
+            phoneEntity.setNumber("123456" + i);
+            phoneEntity.setCityCode("1");
+            phoneEntity.setCountryCode("57");
+            phoneEntity.setUser(userEntity);
+            phones.add(phoneEntity);
+        }
+        userEntity.setPhones(phones);
+        return userEntity;
+    }
+}
@@ -0,0 +1,78 @@
+package com.nisum.exam.userapi.benchmark;
+
+import com.nisum.exam.userapi.config.EmailProperties;
+import com.nisum.exam.userapi.config.PasswordProperties;
+import com.nisum.exam.userapi.util.FormatValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static com.nisum.exam.userapi.util.Constants.EMAIL_REGEX;
+import static com.nisum.exam.userapi.util.Constants.PWD_REGEX;
+
+/**
+ * Compara la validación de email y contraseña compilando el Pattern en cada petición (comportamiento anterior),
+ * reutilizando el Pattern precompilado y usando el validador escrito a mano de FormatValidator.
+ * Se ejecuta con varios hilos para simular carga concurrente.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(3)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private static final String EMAIL = "camilo.arevalo@gmail.cl";
+
+    private static final String PASSWORD = "123Acb144*";
+
+    private Pattern emailPattern;
+
+    private Pattern passwordPattern;
+
+    private FormatValidator formatValidator;
+
+    @Setup
+    public void setUp() {
+        emailPattern = Pattern.compile(EMAIL_REGEX);
+        passwordPattern = Pattern.compile(PWD_REGEX);
+
+        EmailProperties emailProperties = new EmailProperties();
+        emailProperties.setRegex(EMAIL_REGEX);
+        PasswordProperties passwordProperties = new PasswordProperties();
+        passwordProperties.setRegex(PWD_REGEX);
+        formatValidator = new FormatValidator(emailProperties, passwordProperties);
+        formatValidator.compile();
+    }
+
+    @Benchmark
+    public boolean compilePerRequest() {
+        return Pattern.compile(EMAIL_REGEX).matcher(EMAIL).matches()
+                & Pattern.compile(PWD_REGEX).matcher(PASSWORD).matches();
+    }
+
+    @Benchmark
+    public boolean precompiledPattern() {
+        return emailPattern.matcher(EMAIL).matches()
+                & passwordPattern.matcher(PASSWORD).matches();
+    }
+
+    @Benchmark
+    public boolean fastPath() {
+        return formatValidator.isValidEmail(EMAIL)
+                & formatValidator.isValidPassword(PASSWORD);
+    }
+}
@@ -0,0 +1,39 @@
+package com.nisum.exam.userapi.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Clase de configuración de la cache en memoria (Caffeine) de usuarios.
+ * Los nombres, el tamaño y el tiempo de vida se definen en spring.cache.*.
+ */
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String USERS_CACHE = "users";
+
+    /**
+     * Bean de CacheManager respaldado por Caffeine. Las invalidaciones se aplican después del commit,
+     * para que una lectura concurrente no vuelva a cargar en cache el usuario antes de que la escritura sea visible.
+     *
+     * @param cacheProperties propiedades spring.cache.*
+     * @return bean de CacheManager.
+     */
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setCacheSpecification(cacheProperties.getCaffeine().getSpec());
+        caffeineCacheManager.setCacheNames(cacheProperties.getCacheNames());
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+
+}
@@ -1,26 +1,83 @@
 package com.nisum.exam.userapi.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
- * Clase de configuración usada para encriptar contraseñas con BCryptPasswordEncoder.
+ * Clase de configuración usada para encriptar contraseñas. El algoritmo y el costo se definen
+ * en password.encoder.*; los hashes guardados llevan el prefijo {id} del algoritmo usado.
  */
 
 @Configuration
 public class EncoderConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(EncoderConfig.class);
+
+    private static final String CALIBRATION_PASSWORD = "123Acb144*";
+
 
     /**
-     * Bean usado para encriptar contraseñas.
+     * Bean usado para encriptar contraseñas. Si se define password.encoder.target-latency,
+     * el costo de BCrypt se calibra al iniciar para ajustarse a ese tiempo en el equipo.
      *
-     * @return bean de BCryptPasswordEncoder.
+     * @param properties propiedades password.encoder.*
+     * @return bean de DelegatingPasswordEncoder.
      */
     @Bean
-    public PasswordEncoder encoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder encoder(PasswordEncoderProperties properties) {
+        int strength = properties.getTargetLatency() != null
+                ? calibrateStrength(properties.getTargetLatency(), properties.getMinStrength(), properties.getMaxStrength())
+                : properties.getStrength();
+        log.info("Encriptación de contraseñas con {} (costo BCrypt {})", properties.getAlgorithm(), strength);
+
+        BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder(strength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bCryptPasswordEncoder);
+        encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        encoders.put("argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+        DelegatingPasswordEncoder delegatingPasswordEncoder = new DelegatingPasswordEncoder(properties.getAlgorithm(), encoders);
+        // Los hashes guardados antes de usar prefijos {id} son BCrypt
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(bCryptPasswordEncoder);
+        return delegatingPasswordEncoder;
+    }
+
+    /**
+     * Busca el mayor costo de BCrypt cuyo tiempo de encriptación no supera el objetivo.
+     * Nunca devuelve un costo menor a minStrength.
+     *
+     * @param targetLatency tiempo máximo deseado por contraseña
+     * @param minStrength   costo mínimo aceptado
+     * @param maxStrength   costo máximo a probar
+     * @return costo de BCrypt a usar
+     */
+    static int calibrateStrength(Duration targetLatency, int minStrength, int maxStrength) {
+        // Calentamiento para que el JIT no penalice la primera medición
+        new BCryptPasswordEncoder(minStrength).encode(CALIBRATION_PASSWORD);
+
+        int strength = minStrength;
+        for (int candidate = minStrength; candidate <= maxStrength; candidate++) {
+            long start = System.nanoTime();
+            new BCryptPasswordEncoder(candidate).encode(CALIBRATION_PASSWORD);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            log.info("Calibración BCrypt: costo {} tarda {} ms", candidate, elapsed.toMillis());
+            if (elapsed.compareTo(targetLatency) > 0) {
+                break;
+            }
+            strength = candidate;
+        }
+        return strength;
     }
 
-}
\ No newline at end of file
+}
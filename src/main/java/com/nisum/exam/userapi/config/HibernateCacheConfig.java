@@ -0,0 +1,105 @@
+package com.nisum.exam.userapi.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import static com.nisum.exam.userapi.util.Constants.PHONE_ENTITY_CACHE_REGION;
+import static com.nisum.exam.userapi.util.Constants.USER_ENTITY_CACHE_REGION;
+import static com.nisum.exam.userapi.util.Constants.USER_PHONES_CACHE_REGION;
+import static com.nisum.exam.userapi.util.Constants.USER_QUERIES_CACHE_REGION;
+
+/**
+ * Clase de configuración de la cache de segundo nivel y de consultas de Hibernate sobre JCache con Caffeine.
+ * Las regiones se crean aquí con los límites de persistence.cache.* y Hibernate falla al iniciar si una
+ * entidad o consulta usa una región que no existe, en lugar de crearla sin límites.
+ */
+
+@Configuration
+@ConditionalOnProperty(prefix = "persistence.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class HibernateCacheConfig {
+
+    private static final String CACHE_MANAGER_TAG = "hibernate";
+
+    /**
+     * Bean del CacheManager de JCache que contiene las regiones de Hibernate.
+     *
+     * @param persistenceProperties propiedades persistence.*
+     * @return bean de CacheManager de JCache.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(PersistenceProperties persistenceProperties) {
+        // URI propio por contexto, para que varias aplicaciones en la misma JVM (como en los tests) no compartan regiones
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        PersistenceProperties.Cache cache = persistenceProperties.getCache();
+        createRegion(cacheManager, USER_ENTITY_CACHE_REGION, cache.getEntities());
+        createRegion(cacheManager, PHONE_ENTITY_CACHE_REGION, cache.getEntities());
+        createRegion(cacheManager, USER_PHONES_CACHE_REGION, cache.getCollections());
+        createRegion(cacheManager, USER_QUERIES_CACHE_REGION, cache.getQueries());
+        createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, cache.getQueries());
+        // Las marcas de tiempo de cada tabla invalidan las consultas guardadas, por lo que no se desalojan ni expiran
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, regionConfiguration());
+        return cacheManager;
+    }
+
+    /**
+     * Bean que activa en Hibernate la cache de segundo nivel y de consultas sobre el CacheManager de JCache.
+     *
+     * @param hibernateCacheManager CacheManager de JCache con las regiones
+     * @return bean de HibernatePropertiesCustomizer.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCachePropertiesCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    /**
+     * Bean que publica las estadísticas de cada región (aciertos, fallos, escrituras y desalojos) como cache.*,
+     * con las mismas etiquetas que las caches de Spring y cache.manager=hibernate.
+     *
+     * @param hibernateCacheManager CacheManager de JCache con las regiones
+     * @return bean de MeterBinder.
+     */
+    @Bean
+    public MeterBinder hibernateCacheMetrics(CacheManager hibernateCacheManager) {
+        return meterRegistry -> hibernateCacheManager.getCacheNames().forEach(cacheName ->
+                JCacheMetrics.monitor(meterRegistry, hibernateCacheManager.getCache(cacheName),
+                        Tags.of("cache.manager", CACHE_MANAGER_TAG, "name", cacheName)));
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, PersistenceProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = regionConfiguration();
+        configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+        configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite().toNanos()));
+        cacheManager.createCache(name, configuration);
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate guarda el estado ya desarmado de la entidad, por lo que no hace falta copiarlo en cada acceso
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,68 @@
+package com.nisum.exam.userapi.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.nisum.exam.userapi.dto.response.UserResponseDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+/**
+ * Clase de configuración de la serialización JSON. Los usuarios se serializan con el filtro USER_FIELDS_FILTER,
+ * que por defecto incluye todos los campos y que UserFieldsResponseBodyAdvice reemplaza cuando la petición
+ * trae el parámetro fields. El filtro se agrega con un mixin para no acoplar el DTO a Jackson.
+ */
+
+@Configuration
+public class JacksonConfig {
+
+    public static final String USER_FIELDS_FILTER = "userFields";
+
+    /**
+     * Bean que agrega el filtro de campos de usuario al ObjectMapper de la aplicación.
+     *
+     * @return bean de Jackson2ObjectMapperBuilderCustomizer.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer userFieldsFilterCustomizer() {
+        return builder -> builder
+                .mixIn(UserResponseDTO.class, UserFieldsFilterMixin.class)
+                .filters(userFieldsFilter(null));
+    }
+
+    /**
+     * Bean del módulo Blackbird, que reemplaza la reflexión por accesos generados con LambdaMetafactory
+     * al leer y escribir las propiedades. Spring Boot registra en el ObjectMapper todos los beans Module.
+     * Se desactiva con json.blackbird.enabled=false.
+     *
+     * @return bean de BlackbirdModule.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "json.blackbird.enabled", havingValue = "true", matchIfMissing = true)
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Arma el proveedor del filtro de campos de usuario.
+     *
+     * @param fields nombres de los campos a serializar, o null para serializarlos todos
+     * @return FilterProvider con el filtro USER_FIELDS_FILTER.
+     */
+    public static FilterProvider userFieldsFilter(Set<String> fields) {
+        return new SimpleFilterProvider().addFilter(USER_FIELDS_FILTER, fields == null
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+    }
+
+    @JsonFilter(USER_FIELDS_FILTER)
+    interface UserFieldsFilterMixin {
+    }
+}
@@ -0,0 +1,31 @@
+package com.nisum.exam.userapi.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Clase de configuración de las métricas de la aplicación.
+ * Las operaciones de usuarios se miden con @Timed bajo el nombre user.operations, etiquetadas con la
+ * operación y la excepción lanzada, y se publican en /actuator/prometheus.
+ */
+
+@Configuration
+public class MetricsConfig {
+
+    public static final String USER_OPERATIONS_METRIC = "user.operations";
+
+    public static final String OPERATION_TAG = "operation";
+
+    /**
+     * Bean que habilita la anotación @Timed en los beans de Spring.
+     *
+     * @param meterRegistry registro de métricas
+     * @return bean de TimedAspect.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,94 @@
+package com.nisum.exam.userapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Clase de configuración del acceso a datos cuando conviven JPA (API bloqueante) y R2DBC (API reactiva).
+ * Spring Boot deja de crear el DataSource JDBC cuando existe un ConnectionFactory de R2DBC, por lo que
+ * se declara aquí a partir de spring.datasource.*, y el administrador de transacciones de JPA se marca
+ * como principal para que @Transactional y TransactionTemplate sigan usándolo.
+ * Las transacciones reactivas usan el ReactiveTransactionManager de R2DBC a través de TransactionalOperator.
+ * El tamaño del pool, el envío en lotes y la cache de segundo nivel de Hibernate se configuran con
+ * persistence.* (PersistenceProperties).
+ */
+
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class PersistenceConfig {
+
+    /**
+     * Bean del pool de conexiones JDBC, con la configuración de spring.datasource.* y persistence.pool.*.
+     * Lo definido en spring.datasource.hikari.* se aplica después y tiene prioridad.
+     *
+     * @param dataSourceProperties  propiedades spring.datasource.*
+     * @param persistenceProperties propiedades persistence.*
+     * @return bean de HikariDataSource.
+     */
+    @Bean
+    @Primary
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties, PersistenceProperties persistenceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        PersistenceProperties.Pool pool = persistenceProperties.getPool();
+        dataSource.setMaximumPoolSize(pool.getMaximumPoolSize());
+        dataSource.setMinimumIdle(pool.getMinimumIdle());
+        dataSource.setConnectionTimeout(pool.getConnectionTimeout().toMillis());
+        dataSource.setIdleTimeout(pool.getIdleTimeout().toMillis());
+        dataSource.setMaxLifetime(pool.getMaxLifetime().toMillis());
+        pool.getDataSourceProperties().forEach(dataSource::addDataSourceProperty);
+        return dataSource;
+    }
+
+    /**
+     * Bean que aplica a Hibernate el envío en lotes, la reutilización de sentencias y la activación
+     * de la cache de segundo nivel de persistence.*.
+     *
+     * @param persistenceProperties propiedades persistence.*
+     * @return bean de HibernatePropertiesCustomizer.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer persistenceHibernatePropertiesCustomizer(PersistenceProperties persistenceProperties) {
+        PersistenceProperties.Batch batch = persistenceProperties.getBatch();
+        PersistenceProperties.Statements statements = persistenceProperties.getStatements();
+        PersistenceProperties.Cache cache = persistenceProperties.getCache();
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(batch.getSize()));
+            hibernateProperties.put(AvailableSettings.ORDER_INSERTS, String.valueOf(batch.isOrderInserts()));
+            hibernateProperties.put(AvailableSettings.ORDER_UPDATES, String.valueOf(batch.isOrderUpdates()));
+            hibernateProperties.put(AvailableSettings.BATCH_VERSIONED_DATA, String.valueOf(batch.isVersionedData()));
+            if (batch.getFetchSize() != null) {
+                hibernateProperties.put(AvailableSettings.STATEMENT_FETCH_SIZE, String.valueOf(batch.getFetchSize()));
+            }
+            hibernateProperties.put(AvailableSettings.QUERY_PLAN_CACHE_MAX_SIZE, String.valueOf(statements.getPlanCacheMaxSize()));
+            hibernateProperties.put(AvailableSettings.IN_CLAUSE_PARAMETER_PADDING, String.valueOf(statements.isInClauseParameterPadding()));
+            // Las regiones de la cache de segundo nivel se configuran en HibernateCacheConfig
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, String.valueOf(cache.isEnabled()));
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, String.valueOf(cache.isEnabled()));
+        };
+    }
+
+    /**
+     * Bean del administrador de transacciones de JPA, principal frente al de R2DBC.
+     *
+     * @param entityManagerFactory fábrica de EntityManager de Hibernate
+     * @return bean de JpaTransactionManager.
+     */
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
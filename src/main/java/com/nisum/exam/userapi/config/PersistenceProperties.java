@@ -0,0 +1,263 @@
+package com.nisum.exam.userapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "persistence")
+public class PersistenceProperties {
+    private final Pool pool = new Pool();
+    private final Batch batch = new Batch();
+    private final Statements statements = new Statements();
+    private final Cache cache = new Cache();
+    private final Export export = new Export();
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public Statements getStatements() {
+        return statements;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    /**
+     * Pool de conexiones Hikari. Los valores por defecto son los de Hikari.
+     */
+    public static class Pool {
+        private int maximumPoolSize = 10;
+        private int minimumIdle = 10;
+        private Duration connectionTimeout = Duration.ofSeconds(30);
+        private Duration idleTimeout = Duration.ofMinutes(10);
+        private Duration maxLifetime = Duration.ofMinutes(30);
+        // Propiedades que se pasan al driver JDBC, por ejemplo su cache de sentencias preparadas
+        private Map<String, String> dataSourceProperties = new LinkedHashMap<>();
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        public int getMinimumIdle() {
+            return minimumIdle;
+        }
+
+        public void setMinimumIdle(int minimumIdle) {
+            this.minimumIdle = minimumIdle;
+        }
+
+        public Duration getConnectionTimeout() {
+            return connectionTimeout;
+        }
+
+        public void setConnectionTimeout(Duration connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public Duration getMaxLifetime() {
+            return maxLifetime;
+        }
+
+        public void setMaxLifetime(Duration maxLifetime) {
+            this.maxLifetime = maxLifetime;
+        }
+
+        public Map<String, String> getDataSourceProperties() {
+            return dataSourceProperties;
+        }
+
+        public void setDataSourceProperties(Map<String, String> dataSourceProperties) {
+            this.dataSourceProperties = dataSourceProperties;
+        }
+    }
+
+    /**
+     * Envío de sentencias en lotes JDBC por parte de Hibernate.
+     */
+    public static class Batch {
+        private int size = 50;
+        private boolean orderInserts = true;
+        private boolean orderUpdates = false;
+        private boolean versionedData = true;
+        private Integer fetchSize;
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public boolean isOrderInserts() {
+            return orderInserts;
+        }
+
+        public void setOrderInserts(boolean orderInserts) {
+            this.orderInserts = orderInserts;
+        }
+
+        public boolean isOrderUpdates() {
+            return orderUpdates;
+        }
+
+        public void setOrderUpdates(boolean orderUpdates) {
+            this.orderUpdates = orderUpdates;
+        }
+
+        public boolean isVersionedData() {
+            return versionedData;
+        }
+
+        public void setVersionedData(boolean versionedData) {
+            this.versionedData = versionedData;
+        }
+
+        public Integer getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(Integer fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    /**
+     * Reutilización de sentencias y planes de consulta en Hibernate.
+     */
+    public static class Statements {
+        private int planCacheMaxSize = 2048;
+        private boolean inClauseParameterPadding = false;
+
+        public int getPlanCacheMaxSize() {
+            return planCacheMaxSize;
+        }
+
+        public void setPlanCacheMaxSize(int planCacheMaxSize) {
+            this.planCacheMaxSize = planCacheMaxSize;
+        }
+
+        public boolean isInClauseParameterPadding() {
+            return inClauseParameterPadding;
+        }
+
+        public void setInClauseParameterPadding(boolean inClauseParameterPadding) {
+            this.inClauseParameterPadding = inClauseParameterPadding;
+        }
+    }
+
+    /**
+     * Cache de segundo nivel y de consultas de Hibernate, con límites por grupo de regiones.
+     */
+    public static class Cache {
+        private boolean enabled = true;
+        private Region entities = new Region(10000, Duration.ofMinutes(10));
+        private Region collections = new Region(10000, Duration.ofMinutes(10));
+        private Region queries = new Region(1000, Duration.ofMinutes(5));
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Region getEntities() {
+            return entities;
+        }
+
+        public void setEntities(Region entities) {
+            this.entities = entities;
+        }
+
+        public Region getCollections() {
+            return collections;
+        }
+
+        public void setCollections(Region collections) {
+            this.collections = collections;
+        }
+
+        public Region getQueries() {
+            return queries;
+        }
+
+        public void setQueries(Region queries) {
+            this.queries = queries;
+        }
+    }
+
+    /**
+     * Límites de una región de cache: cantidad máxima de entradas y tiempo de vida desde que se escriben.
+     */
+    public static class Region {
+        private long maximumSize;
+        private Duration expireAfterWrite;
+
+        public Region() {
+        }
+
+        public Region(long maximumSize, Duration expireAfterWrite) {
+            this.maximumSize = maximumSize;
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+    }
+
+    /**
+     * Exportación de usuarios sobre un cursor JDBC: filas que el driver trae en cada viaje a la base de datos.
+     */
+    public static class Export {
+        private int fetchSize = 1000;
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.nisum.exam.userapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Informa al iniciar la configuración efectiva del pool de conexiones y del envío en lotes de Hibernate,
+ * leída desde el pool y desde la fábrica de EntityManager ya creados, para verificar lo que se aplicó
+ * después de combinar perfiles y propiedades.
+ */
+@Component
+public class PersistenceSettingsReport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PersistenceSettingsReport.class);
+
+    private static final List<String> HIBERNATE_SETTINGS = List.of(
+            AvailableSettings.STATEMENT_BATCH_SIZE,
+            AvailableSettings.ORDER_INSERTS,
+            AvailableSettings.ORDER_UPDATES,
+            AvailableSettings.BATCH_VERSIONED_DATA,
+            AvailableSettings.STATEMENT_FETCH_SIZE,
+            AvailableSettings.QUERY_PLAN_CACHE_MAX_SIZE,
+            AvailableSettings.IN_CLAUSE_PARAMETER_PADDING,
+            AvailableSettings.USE_SECOND_LEVEL_CACHE,
+            AvailableSettings.USE_QUERY_CACHE);
+
+    private final HikariDataSource dataSource;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public PersistenceSettingsReport(HikariDataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        LOG.info("Configuración de persistencia: {}", settings());
+    }
+
+    /**
+     * Obtiene la configuración efectiva del pool y de Hibernate.
+     *
+     * @return nombre y valor de cada parámetro, en orden
+     */
+    public Map<String, Object> settings() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("pool.maximumPoolSize", dataSource.getMaximumPoolSize());
+        settings.put("pool.minimumIdle", dataSource.getMinimumIdle());
+        settings.put("pool.connectionTimeout", dataSource.getConnectionTimeout() + "ms");
+        settings.put("pool.idleTimeout", dataSource.getIdleTimeout() + "ms");
+        settings.put("pool.maxLifetime", dataSource.getMaxLifetime() + "ms");
+        settings.put("pool.dataSourceProperties", dataSource.getDataSourceProperties());
+
+        Map<String, Object> properties = entityManagerFactory.getProperties();
+        HIBERNATE_SETTINGS.forEach(name -> settings.put(name, properties.get(name)));
+        return settings;
+    }
+}
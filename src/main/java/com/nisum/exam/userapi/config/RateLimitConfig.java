@@ -0,0 +1,30 @@
+package com.nisum.exam.userapi.config;
+
+import com.nisum.exam.userapi.service.RateLimitService;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Clase de configuración del límite de solicitudes por cliente en los endpoints de usuarios.
+ * Los límites de cada endpoint se definen en rate-limit.endpoints.*.
+ */
+
+@Configuration
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final RateLimitService rateLimitService;
+
+    private final RateLimitProperties rateLimitProperties;
+
+    public RateLimitConfig(RateLimitService rateLimitService, RateLimitProperties rateLimitProperties) {
+        this.rateLimitService = rateLimitService;
+        this.rateLimitProperties = rateLimitProperties;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor(rateLimitService, rateLimitProperties))
+                .addPathPatterns("/nisum/api/users/**", "/nisum/api/reactive/users/**");
+    }
+}
@@ -0,0 +1,61 @@
+package com.nisum.exam.userapi.config;
+
+import com.nisum.exam.userapi.service.RateLimitService;
+import org.springframework.util.StringUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Aplica el límite de solicitudes por cliente antes de llegar a los controladores de usuarios. Se ejecuta
+ * dentro del DispatcherServlet, por lo que el rechazo se responde con el mismo formato de GlobalExceptionHandler.
+ * En los endpoints asíncronos el cupo de concurrencia se libera cuando termina la respuesta, no cuando el
+ * controlador devuelve el CompletableFuture.
+ */
+public class RateLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String RELEASE_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".release";
+
+    private final RateLimitService rateLimitService;
+
+    private final RateLimitProperties rateLimitProperties;
+
+    public RateLimitInterceptor(RateLimitService rateLimitService, RateLimitProperties rateLimitProperties) {
+        this.rateLimitService = rateLimitService;
+        this.rateLimitProperties = rateLimitProperties;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // El despacho asíncrono que escribe la respuesta ya fue contado en el despacho original
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        String endpoint = ((HandlerMethod) handler).getMethod().getName();
+        request.setAttribute(RELEASE_ATTRIBUTE, rateLimitService.acquire(endpoint, clientOf(request)));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object release = request.getAttribute(RELEASE_ATTRIBUTE);
+        if (release != null) {
+            request.removeAttribute(RELEASE_ATTRIBUTE);
+            ((Runnable) release).run();
+        }
+    }
+
+    /**
+     * Identifica al cliente por su llave solo si está registrada en rate-limit.api-keys; con una llave
+     * desconocida se usa la IP, para que enviar una llave distinta en cada solicitud no entregue un cupo nuevo.
+     */
+    private String clientOf(HttpServletRequest request) {
+        String apiKey = request.getHeader(rateLimitProperties.getClientHeader());
+        return StringUtils.hasText(apiKey) && rateLimitProperties.getApiKeys().contains(apiKey)
+                ? "key:" + apiKey
+                : "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,73 @@
+package com.nisum.exam.userapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.nisum.exam.userapi.controller.UserController;
+import com.nisum.exam.userapi.dto.response.UserResponseDTO;
+import com.nisum.exam.userapi.exception.InvalidFieldsException;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Aplica el parámetro fields (campos separados por coma, por ejemplo fields=id,name,email) a las respuestas
+ * de UserController, para que el cliente reciba solo esos campos de cada usuario. Los campos válidos se leen
+ * una vez desde el ObjectMapper, así siguen a UserResponseDTO sin mantener una lista aparte.
+ */
+@ControllerAdvice(assignableTypes = UserController.class)
+public class UserFieldsResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    public static final String FIELDS_PARAMETER = "fields";
+
+    private final Set<String> userFields;
+
+    public UserFieldsResponseBodyAdvice(ObjectMapper objectMapper) {
+        this.userFields = objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(UserResponseDTO.class))
+                .findProperties().stream()
+                .filter(BeanPropertyDefinition::couldSerialize)
+                .map(BeanPropertyDefinition::getName)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType, MethodParameter returnType,
+                                           ServerHttpRequest request, ServerHttpResponse response) {
+        String fields = ((ServletServerHttpRequest) request).getServletRequest().getParameter(FIELDS_PARAMETER);
+        if (StringUtils.hasText(fields)) {
+            bodyContainer.setFilters(JacksonConfig.userFieldsFilter(parse(fields)));
+        }
+    }
+
+    /**
+     * Separa y valida los campos pedidos.
+     *
+     * @param fields valor del parámetro fields
+     * @return nombres de los campos pedidos, en el orden recibido.
+     * @throws InvalidFieldsException si algún campo no existe en la respuesta de usuario
+     */
+    Set<String> parse(String fields) {
+        Set<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<String> unknown = new TreeSet<>(requested);
+        unknown.removeAll(userFields);
+        if (!unknown.isEmpty()) {
+            throw new InvalidFieldsException(unknown, userFields);
+        }
+        return requested;
+    }
+}
@@ -0,0 +1,70 @@
+package com.nisum.exam.userapi.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME;
+import static org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME;
+
+/**
+ * Modo opcional que atiende las peticiones de Tomcat y ejecuta la capa de servicio (guardado en base de datos
+ * y respuestas asíncronas) en hilos virtuales, con spring.threads.virtual.enabled=true.
+ * Requiere Java 21: Spring Boot 2.7 no los soporta de forma nativa, por lo que el ejecutor se obtiene por reflexión.
+ * La propiedad es la misma de Spring Boot 3.2, que los configura por sí mismo; al migrar se puede eliminar esta clase.
+ * <p>
+ * El pool de encriptación de contraseñas se mantiene con hilos de plataforma porque BCrypt usa CPU y no se bloquea.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    /**
+     * Bean que reemplaza el pool de hilos de Tomcat por un hilo virtual por petición.
+     *
+     * @return personalizador del conector de Tomcat.
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        LOG.info("Peticiones HTTP atendidas en hilos virtuales");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    /**
+     * Bean que reemplaza al ejecutor de tareas de la aplicación, usado para guardar usuarios
+     * y completar las respuestas asíncronas de Spring MVC.
+     *
+     * @return ejecutor con un hilo virtual por tarea.
+     */
+    @Bean(name = {APPLICATION_TASK_EXECUTOR_BEAN_NAME, DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Crea un ExecutorService con un hilo virtual por tarea, disponible desde Java 21.
+     *
+     * @return ejecutor de hilos virtuales
+     * @throws IllegalStateException si la JVM no soporta hilos virtuales
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException ex) {
+            throw new IllegalStateException("spring.threads.virtual.enabled=true requiere Java 21 o superior, versión actual: "
+                    + Runtime.version(), ex);
+        }
+    }
+}
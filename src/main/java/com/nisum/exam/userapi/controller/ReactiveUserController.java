@@ -0,0 +1,80 @@
+package com.nisum.exam.userapi.controller;
+
+
+
+import com.nisum.exam.userapi.dto.request.UserRequestDTO;
+import com.nisum.exam.userapi.dto.response.UserResponseDTO;
+import com.nisum.exam.userapi.service.ReactiveUserServiceInterface;
+import com.nisum.exam.userapi.util.ETags;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.util.List;
+
+import static com.nisum.exam.userapi.util.Constants.DEFAULT_PAGE_SIZE;
+import static com.nisum.exam.userapi.util.Constants.NEXT_CURSOR_HEADER;
+
+/**
+ * Clase Controlador de la API reactiva de usuarios, respaldada por R2DBC. Responde con los mismos
+ * formatos y errores que la API bloqueante, manejados también por GlobalExceptionHandler.
+ */
+@RestController
+@RequestMapping(value = "/nisum/api/reactive/users", produces = MediaType.APPLICATION_JSON_VALUE)
+public class ReactiveUserController {
+
+    private ReactiveUserServiceInterface reactiveUserServiceInterface;
+
+    public ReactiveUserController(ReactiveUserServiceInterface reactiveUserServiceInterface) {
+        this.reactiveUserServiceInterface = reactiveUserServiceInterface;
+    }
+
+    /**
+     * Solicitud HTTP-GET para obtener una página de usuarios con su lista de telefonos.
+     * El token para pedir la siguiente página se devuelve en el header X-Next-Cursor.
+     *
+     * @param cursor token de continuación entregado en la página anterior
+     * @param size   cantidad de usuarios por página
+     * @return una lista de objetos User en el cuerpo de la respuesta HTTP
+     */
+    @GetMapping
+    public Mono<ResponseEntity<List<UserResponseDTO>>> getUsers(@RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        return reactiveUserServiceInterface.getUsers(cursor, size).map(page -> {
+            HttpHeaders headers = new HttpHeaders();
+            if (page.getNextCursor() != null) {
+                headers.set(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            headers.setETag(ETags.ofPage(page.getUsers(), page.getNextCursor()));
+            return new ResponseEntity<>(page.getUsers(), headers, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Solicitud HTTP-GET que transmite todos los usuarios en formato NDJSON (un usuario por línea).
+     * Cada usuario se escribe antes de pedir el siguiente a la base de datos.
+     *
+     * @return flujo de usuarios
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserResponseDTO> streamUsers() {
+        return reactiveUserServiceInterface.streamUsers();
+    }
+
+    /**
+     * Solicitud HTTP POST para guardar un nuevo usuario.
+     *
+     * @param userRequestDTO contiene la información del usuario a guardar
+     * @return UserResponseDTO creado en el cuerpo de la respuesta HTTP
+     */
+    @PostMapping
+    public Mono<ResponseEntity<UserResponseDTO>> saveUser(@Valid @RequestBody UserRequestDTO userRequestDTO) {
+        return reactiveUserServiceInterface.saveUser(userRequestDTO.toModel())
+                .map(user -> ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(user.getVersion())).body(user));
+    }
+}
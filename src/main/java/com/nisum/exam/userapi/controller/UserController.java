@@ -2,16 +2,44 @@ package com.nisum.exam.userapi.controller;
 
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nisum.exam.userapi.dto.request.UserPatchRequestDTO;
 import com.nisum.exam.userapi.dto.request.UserRequestDTO;
+import com.nisum.exam.userapi.dto.request.UserSearchRequestDTO;
+import com.nisum.exam.userapi.dto.response.UserPageResponseDTO;
 import com.nisum.exam.userapi.dto.response.UserResponseDTO;
+import com.nisum.exam.userapi.model.ImportFormat;
+import com.nisum.exam.userapi.model.User;
+import com.nisum.exam.userapi.service.UserExportServiceInterface;
+import com.nisum.exam.userapi.service.UserImportServiceInterface;
 import com.nisum.exam.userapi.service.UserServiceInterface;
+import com.nisum.exam.userapi.util.ETags;
+import com.nisum.exam.userapi.util.UserExportWriter;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static com.nisum.exam.userapi.util.Constants.DEFAULT_PAGE_SIZE;
+import static com.nisum.exam.userapi.util.Constants.EXPORT_BUFFER_SIZE;
+import static com.nisum.exam.userapi.util.Constants.NEXT_CURSOR_HEADER;
 
 /**
  * Clase Controlador, es donde se manejan las solicitudes HTTP relacionadas con usuarios.
@@ -22,40 +50,212 @@ public class UserController {
 
     private UserServiceInterface userServiceInterface;
 
-    public UserController(UserServiceInterface userServiceInterface) {
+    private UserImportServiceInterface userImportServiceInterface;
+
+    private UserExportServiceInterface userExportServiceInterface;
+
+    private UserExportWriter userExportWriter;
+
+    private ObjectMapper objectMapper;
+
+    public UserController(UserServiceInterface userServiceInterface, UserImportServiceInterface userImportServiceInterface, UserExportServiceInterface userExportServiceInterface, UserExportWriter userExportWriter, ObjectMapper objectMapper) {
         this.userServiceInterface = userServiceInterface;
+        this.userImportServiceInterface = userImportServiceInterface;
+        this.userExportServiceInterface = userExportServiceInterface;
+        this.userExportWriter = userExportWriter;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Solicitud HTTP-GET para obtener todos los usuarios con su lista de telefonos.
+     * Solicitud HTTP-GET para obtener una página de usuarios con su lista de telefonos.
+     * El token para pedir la siguiente página se devuelve en el header X-Next-Cursor y la
+     * página lleva un ETag; si coincide con If-None-Match se responde 304 sin cuerpo.
      *
+     * @param cursor token de continuación entregado en la página anterior
+     * @param size   cantidad de usuarios por página
      * @return una lista de objetos User en el cuerpo de la respuesta HTTP
      */
     @GetMapping
-    public ResponseEntity<List<UserResponseDTO>> getUsers() {
-        return new ResponseEntity<>(userServiceInterface.getUsers(), HttpStatus.OK);
+    public ResponseEntity<List<UserResponseDTO>> getUsers(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        UserPageResponseDTO page = userServiceInterface.getUsers(cursor, size);
+        return pageResponse(page);
+    }
+
+    /**
+     * Solicitud HTTP-GET para buscar usuarios por estado, rangos de fechas, prefijo del nombre y código
+     * de país o ciudad de sus telefonos. Se pagina igual que el listado: X-Next-Cursor y ETag.
+     *
+     * @param searchRequestDTO filtros de la búsqueda, todos opcionales
+     * @param cursor           token de continuación entregado en la página anterior
+     * @param size             cantidad de usuarios por página
+     * @return una lista de objetos User en el cuerpo de la respuesta HTTP
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<UserResponseDTO>> searchUsers(UserSearchRequestDTO searchRequestDTO,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        UserPageResponseDTO page = userServiceInterface.searchUsers(searchRequestDTO.toModel(), cursor, size);
+        return pageResponse(page);
+    }
+
+    /**
+     * Solicitud HTTP-GET para obtener un usuario por su id con su lista de telefonos, sin la contraseña.
+     * La respuesta lleva la versión del usuario como ETag; si coincide con If-None-Match se responde 304.
+     *
+     * @param id id del usuario
+     * @return UserResponseDTO en el cuerpo de la respuesta HTTP
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<UserResponseDTO> getUser(@PathVariable UUID id) {
+        UserResponseDTO user = userServiceInterface.getUser(id);
+        return ResponseEntity.ok().eTag(ETags.of(user.getVersion())).body(user);
+    }
+
+    /**
+     * Solicitud HTTP-GET para obtener un usuario por su email con su lista de telefonos, sin la contraseña.
+     *
+     * @param email correo electrónico del usuario
+     * @return UserResponseDTO en el cuerpo de la respuesta HTTP
+     */
+    @GetMapping("/by-email")
+    public ResponseEntity<UserResponseDTO> getUserByEmail(@RequestParam String email) {
+        UserResponseDTO user = userServiceInterface.getUserByEmail(email);
+        return ResponseEntity.ok().eTag(ETags.of(user.getVersion())).body(user);
+    }
+
+    /**
+     * Solicitud HTTP-GET que transmite todos los usuarios en formato NDJSON (un usuario por línea),
+     * escribiendo cada registro a medida que se lee de la base de datos.
+     *
+     * @return cuerpo de la respuesta que se escribe de forma incremental
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        StreamingResponseBody body = outputStream ->
+                userServiceInterface.streamUsers(user -> writeLine(outputStream, user));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
+    /**
+     * Solicitud HTTP-GET que exporta todos los usuarios ordenados por id, en CSV si el header Accept pide
+     * text/csv y si no en NDJSON. La compresión la negocia el servidor (server.compression) según
+     * Accept-Encoding, igual que en las demás respuestas.
+     * Una exportación interrumpida se continúa enviando en after el id del último usuario recibido completo.
+     *
+     * @param after  id del último usuario recibido, opcional
+     * @param accept formatos aceptados por el cliente
+     * @return cuerpo de la respuesta que se escribe de forma incremental
+     */
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, ImportFormat.TEXT_CSV_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(required = false) UUID after,
+                                                             @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        ImportFormat format = ImportFormat.fromAccept(accept);
+
+        StreamingResponseBody body = outputStream -> {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE)) {
+                userExportServiceInterface.exportUsers(after, userExportWriter.writer(format, writer));
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(format == ImportFormat.CSV ? MediaType.parseMediaType(ImportFormat.TEXT_CSV_VALUE) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(body);
+    }
 
     /**
-     * Solicitud HTTP POST para guardar un nuevo usuario.
+     * Solicitud HTTP POST para guardar un nuevo usuario. La respuesta se completa de forma asíncrona,
+     * liberando el hilo de la petición mientras se encripta la contraseña.
      *
      * @param userRequestDTO contiene la información del usuario a guardar
      * @return UserResponseDTO creado en el cuerpo de la respuesta HTTP
      */
     @PostMapping
-    public ResponseEntity<UserResponseDTO> saveUser(@Valid @RequestBody UserRequestDTO userRequestDTO) {
-        return new ResponseEntity<>(userServiceInterface.saveUser(userRequestDTO.toModel()), HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<UserResponseDTO>> saveUser(@Valid @RequestBody UserRequestDTO userRequestDTO) {
+        return userServiceInterface.saveUser(userRequestDTO.toModel())
+                .thenApply(user -> ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(user.getVersion())).body(user));
     }
 
     /**
-     * Solicitud HTTP PUT para actualizar un usuario ya guardado previamente.
+     * Solicitud HTTP PUT para actualizar un usuario ya guardado previamente. La respuesta se completa
+     * de forma asíncrona, liberando el hilo de la petición mientras se encripta la contraseña.
+     * Con If-Match solo se actualiza si el ETag coincide con la versión actual, si no se responde 412.
      *
+     * @param ifMatch        ETag de la versión que el cliente quiere modificar, opcional
      * @param userRequestDTO contiene la información del usuario a actualizar
      * @return UserResponseDTO actualizado en el cuerpo de la respuesta HTTP
      */
     @PutMapping
-    public ResponseEntity<UserResponseDTO> updateUser(@RequestBody UserRequestDTO userRequestDTO) {
-        return new ResponseEntity<>(userServiceInterface.updateUser(userRequestDTO.toModel()), HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<UserResponseDTO>> updateUser(@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                                         @RequestBody UserRequestDTO userRequestDTO) {
+        User user = userRequestDTO.toModel();
+        user.setVersion(ETags.parseVersion(ifMatch));
+        return userServiceInterface.updateUser(user)
+                .thenApply(updated -> ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated));
+    }
+
+    /**
+     * Solicitud HTTP PATCH para modificar solo algunos campos de un usuario. Los campos que no se
+     * envían se mantienen y la contraseña solo se encripta si viene en la solicitud.
+     * Con If-Match solo se modifica si el ETag coincide con la versión actual, si no se responde 412.
+     *
+     * @param id                  id del usuario a modificar
+     * @param ifMatch             ETag de la versión que el cliente quiere modificar, opcional
+     * @param userPatchRequestDTO contiene los campos a modificar
+     * @return UserResponseDTO modificado en el cuerpo de la respuesta HTTP
+     */
+    @PatchMapping("/{id}")
+    public CompletableFuture<ResponseEntity<UserResponseDTO>> patchUser(@PathVariable UUID id,
+                                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                                        @Valid @RequestBody UserPatchRequestDTO userPatchRequestDTO) {
+        User changes = userPatchRequestDTO.toModel();
+        changes.setVersion(ETags.parseVersion(ifMatch));
+        return userServiceInterface.patchUser(id, changes)
+                .thenApply(user -> ResponseEntity.ok().eTag(ETags.of(user.getVersion())).body(user));
+    }
+
+    /**
+     * Solicitud HTTP POST para importar usuarios de forma masiva desde un archivo NDJSON o CSV.
+     * El archivo se lee a medida que llega y el resultado de cada registro se devuelve en formato NDJSON
+     * con su número de línea, el id creado o el mensaje de error.
+     *
+     * @param contentType formato del archivo, application/x-ndjson o text/csv
+     * @param inputStream contenido del archivo
+     * @return cuerpo de la respuesta que se escribe de forma incremental
+     */
+    @PostMapping(value = "/import",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, ImportFormat.TEXT_CSV_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                             InputStream inputStream) {
+        StreamingResponseBody body = outputStream -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+            userImportServiceInterface.importUsers(reader.lines(), ImportFormat.from(contentType),
+                    result -> writeLine(outputStream, result));
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private void writeLine(OutputStream outputStream, Object value) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(value));
+            outputStream.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static ResponseEntity<List<UserResponseDTO>> pageResponse(UserPageResponseDTO page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.getNextCursor() != null) {
+            headers.set(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        headers.setETag(ETags.ofPage(page.getUsers(), page.getNextCursor()));
+        return new ResponseEntity<>(page.getUsers(), headers, HttpStatus.OK);
     }
 }
@@ -0,0 +1,32 @@
+package com.nisum.exam.userapi.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Clase DTO de proyección, con una fila por cada telefono del usuario y solo las columnas
+ * que necesita la respuesta; la contraseña no se lee. Un usuario sin telefonos trae una
+ * sola fila con los datos del telefono en null.
+ */
+
+@Getter
+@AllArgsConstructor
+public class UserRowDTO {
+
+    private UUID id;
+    private String name;
+    private String email;
+    private LocalDate created;
+    private LocalDate modified;
+    private LocalDate lastLogin;
+    private String token;
+    private Boolean isActive;
+    private Long version;
+    private Long phoneId;
+    private String number;
+    private String cityCode;
+    private String countryCode;
+}
@@ -0,0 +1,41 @@
+package com.nisum.exam.userapi.dto.request;
+
+
+import com.nisum.exam.userapi.model.Phone;
+import com.nisum.exam.userapi.model.User;
+import lombok.Data;
+
+import javax.validation.constraints.Email;
+import java.util.List;
+
+
+/**
+ * Clase DTO con los campos que se pueden modificar parcialmente de un usuario.
+ * Los campos que no se envían (null) se mantienen sin cambios; si se envía phones,
+ * la lista reemplaza a los telefonos actuales.
+ */
+@Data
+public class UserPatchRequestDTO {
+
+    private String name;
+
+    @Email
+    private String email;
+
+    private String password;
+
+    private List<Phone> phones;
+
+    private Boolean isActive;
+
+    public User toModel() {
+        return User.builder()
+                .name(name)
+                .email(email)
+                .password(password)
+                .phones(phones)
+                .isActive(isActive)
+                .build();
+    }
+
+}
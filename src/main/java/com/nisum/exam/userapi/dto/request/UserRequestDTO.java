@@ -9,6 +9,7 @@ import javax.validation.constraints.Email;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 import java.util.List;
+import java.util.UUID;
 
 
 /**
@@ -18,7 +19,7 @@ import java.util.List;
 @Data
 public class UserRequestDTO {
 
-    private String userId;
+    private UUID userId;
 
     @NotNull
     @NotEmpty
@@ -39,7 +40,7 @@ public class UserRequestDTO {
 
     public User toModel() {
         return User.builder()
-                .id(userId != null ? userId : null)
+                .id(userId)
                 .name(name)
                 .email(email)
                 .password(password)
@@ -0,0 +1,60 @@
+package com.nisum.exam.userapi.dto.request;
+
+
+import com.nisum.exam.userapi.model.UserSearchFilter;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+
+
+/**
+ * Clase DTO con los filtros de la búsqueda de usuarios, recibidos como parámetros de la URL.
+ * Las fechas usan el formato ISO (yyyy-MM-dd).
+ */
+@Data
+public class UserSearchRequestDTO {
+
+    private Boolean active;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate modifiedFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate modifiedTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate lastLoginFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate lastLoginTo;
+
+    private String namePrefix;
+
+    private String countryCode;
+
+    private String cityCode;
+
+    public UserSearchFilter toModel() {
+        return UserSearchFilter.builder()
+                .active(active)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .modifiedFrom(modifiedFrom)
+                .modifiedTo(modifiedTo)
+                .lastLoginFrom(lastLoginFrom)
+                .lastLoginTo(lastLoginTo)
+                .namePrefix(StringUtils.hasText(namePrefix) ? namePrefix : null)
+                .countryCode(StringUtils.hasText(countryCode) ? countryCode : null)
+                .cityCode(StringUtils.hasText(cityCode) ? cityCode : null)
+                .build();
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.nisum.exam.userapi.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Clase DTO, encargada de tener el resultado de importar un registro:
+ * la línea de origen, el estado y el id creado o el mensaje de error.
+ */
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResultDTO {
+
+    public static final String CREATED = "CREATED";
+    public static final String ERROR = "ERROR";
+
+    private long line;
+    private String email;
+    private String status;
+    private UUID id;
+    private String mensaje;
+}
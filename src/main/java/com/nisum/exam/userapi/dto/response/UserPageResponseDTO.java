@@ -0,0 +1,23 @@
+package com.nisum.exam.userapi.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Clase DTO, encargada de tener una página de usuarios
+ * junto con el token para pedir la siguiente página.
+ */
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class UserPageResponseDTO {
+
+    private List<UserResponseDTO> users;
+    private String nextCursor;
+}
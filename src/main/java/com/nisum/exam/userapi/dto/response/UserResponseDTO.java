@@ -1,5 +1,7 @@
 package com.nisum.exam.userapi.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,6 +25,8 @@ public class UserResponseDTO {
     private UUID id;
     private String name;
     private String email;
+    // Las consultas de un usuario por id o email no leen la contraseña y la omiten de la respuesta
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String password;
     private List<PhoneResponseDTO> phones;
     private LocalDate created;
@@ -30,4 +34,8 @@ public class UserResponseDTO {
     private LocalDate lastLogin;
     private String token;
     private Boolean isActive;
+
+    // Se envía en el header ETag, no en el cuerpo
+    @JsonIgnore
+    private Long version;
 }
\ No newline at end of file
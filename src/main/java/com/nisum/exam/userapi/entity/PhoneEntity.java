@@ -4,9 +4,14 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
+import static com.nisum.exam.userapi.util.Constants.PHONE_ENTITY_CACHE_REGION;
+import static com.nisum.exam.userapi.util.Constants.PHONE_ID_ALLOCATION_SIZE;
+
 /**
  * Clase que representa la entidad phone en la base de datos.
  */
@@ -15,12 +20,16 @@ import javax.persistence.*;
 @AllArgsConstructor
 @RequiredArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = PHONE_ENTITY_CACHE_REGION)
 @Table(name = "phone")
 public class PhoneEntity {
 
 
+    // Con una secuencia Hibernate conoce el id antes del INSERT y puede agrupar los inserts en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "phone_seq")
+    @SequenceGenerator(name = "phone_seq", sequenceName = "phone_seq", allocationSize = PHONE_ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "number")
@@ -33,6 +42,6 @@ public class PhoneEntity {
     private String countryCode;
 
     @ManyToOne(targetEntity = UserEntity.class)
-    @JoinColumn(name = "user_id", referencedColumnName = "id")
+    @JoinColumn(name = "user_id", referencedColumnName = "id", columnDefinition = "UUID")
     private UserEntity user;
 }
\ No newline at end of file
@@ -4,25 +4,42 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+
+import static com.nisum.exam.userapi.util.Constants.PHONE_BATCH_SIZE;
+import static com.nisum.exam.userapi.util.Constants.USER_ENTITY_CACHE_REGION;
+import static com.nisum.exam.userapi.util.Constants.USER_PHONES_CACHE_REGION;
+import static com.nisum.exam.userapi.util.Constants.USERS_EMAIL_UNIQUE_INDEX;
 
 /**
  * Clase que representa la entidad User en la base de datos.
+ * Con @DynamicUpdate el UPDATE solo incluye las columnas que cambiaron. La entidad y su lista de teléfonos
+ * se guardan en la cache de segundo nivel, que Hibernate actualiza al confirmar cada escritura.
  */
 @Getter
 @Setter
 @AllArgsConstructor
 @RequiredArgsConstructor
 @Entity
-@Table(name = "users")
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = USER_ENTITY_CACHE_REGION)
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = USERS_EMAIL_UNIQUE_INDEX, columnNames = "email"))
 public class UserEntity {
 
+    // UUID versión 7 guardado como UUID binario de 16 bytes, ordenado por fecha de creación
     @Id
-    private String id;
+    @Column(name = "id", columnDefinition = "UUID")
+    private UUID id;
 
     @Column(name = "name")
     private String name;
@@ -48,6 +65,14 @@ public class UserEntity {
     @Column(name = "is_active")
     private Boolean isActive;
 
+    // Se incrementa en cada UPDATE; un UPDATE con una versión anterior no modifica filas y falla
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    // Los teléfonos de una página de usuarios se cargan en lotes con IN (...) en lugar de una consulta por usuario
+    @BatchSize(size = PHONE_BATCH_SIZE)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = USER_PHONES_CACHE_REGION)
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<PhoneEntity> phones = new ArrayList<>();
 
@@ -0,0 +1,8 @@
+package com.nisum.exam.userapi.exception;
+
+public class ConcurrentUserModificationException extends RuntimeException {
+
+    public ConcurrentUserModificationException() {
+        super("El usuario fue modificado por otra solicitud, vuelva a intentarlo");
+    }
+}
@@ -1,11 +1,18 @@
 package com.nisum.exam.userapi.exception;
 
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindException;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.HashMap;
@@ -14,11 +21,18 @@ import java.util.Map;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     /**
      * Captura las excepciones lanzadas con ResponseStatusException
      */
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<Map<String, String>> handleResponseStatusException(ResponseStatusException ex) {
+        countError(ex, ex.getStatus());
         Map<String, String> response = new HashMap<>();
         response.put("mensaje", ex.getReason());
         return new ResponseEntity<>(response, ex.getStatus());
@@ -29,6 +43,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationException(MethodArgumentNotValidException ex) {
+        countError(ex, HttpStatus.BAD_REQUEST);
         String mensaje = ex.getBindingResult().getFieldErrors().stream()
                 .map(error -> error.getField() + ": " + error.getDefaultMessage())
                 .findFirst()
@@ -44,6 +59,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleException(Exception ex) {
+        countError(ex, HttpStatus.INTERNAL_SERVER_ERROR);
         Map<String, String> response = new HashMap<>();
         response.put("mensaje", "Error interno del servidor");
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
@@ -53,6 +69,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(EmailAlreadyExistsException.class)
     public ResponseEntity<Map<String, String>> handleEmailAlreadyExists(EmailAlreadyExistsException ex) {
+        countError(ex, HttpStatus.CONFLICT);
         return ResponseEntity.status(HttpStatus.CONFLICT)
                 .body(Map.of("mensaje", ex.getMessage()));
     }
@@ -61,6 +78,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(InvalidPasswordException.class)
     public ResponseEntity<Map<String, String>> handleInvalidPassword(InvalidPasswordException ex) {
+        countError(ex, HttpStatus.BAD_REQUEST);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(Map.of("mensaje", ex.getMessage()));
     }
@@ -70,6 +88,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(UserNotFoundException.class)
     public ResponseEntity<Map<String, String>> handleUserNotFound(UserNotFoundException ex) {
+        countError(ex, HttpStatus.NOT_FOUND);
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(Map.of("mensaje", ex.getMessage()));
     }
@@ -78,8 +97,117 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(InvalidEmailException.class)
     public ResponseEntity<Map<String, String>> handleInvalidEmail(InvalidEmailException ex) {
+        countError(ex, HttpStatus.BAD_REQUEST);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("mensaje", ex.getMessage()));
+    }
+
+    /**
+     * Captura excepción para cuando el cursor de paginación es invalido.
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidCursor(InvalidCursorException ex) {
+        countError(ex, HttpStatus.BAD_REQUEST);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("mensaje", ex.getMessage()));
+    }
+
+    /**
+     * Captura excepción para cuando el parámetro fields pide campos que no tiene la respuesta de usuario.
+     */
+    @ExceptionHandler(InvalidFieldsException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidFields(InvalidFieldsException ex) {
+        countError(ex, HttpStatus.BAD_REQUEST);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(Map.of("mensaje", ex.getMessage()));
     }
 
+    /**
+     * Captura excepción para cuando la cola de encriptación de contraseñas está llena.
+     */
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<Map<String, String>> handleHashingCapacityExceeded(HashingCapacityExceededException ex) {
+        countError(ex, HttpStatus.TOO_MANY_REQUESTS);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("mensaje", ex.getMessage()));
+    }
+
+    /**
+     * Captura excepción para cuando el cliente superó el límite de solicitudes del endpoint.
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Map<String, String>> handleRateLimitExceeded(RateLimitExceededException ex) {
+        countError(ex, HttpStatus.TOO_MANY_REQUESTS);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("mensaje", ex.getMessage()));
+    }
+
+    /**
+     * Captura excepción para cuando la versión enviada en If-Match ya no es la actual.
+     */
+    @ExceptionHandler(UserVersionMismatchException.class)
+    public ResponseEntity<Map<String, String>> handleVersionMismatch(UserVersionMismatchException ex) {
+        countError(ex, HttpStatus.PRECONDITION_FAILED);
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(Map.of("mensaje", ex.getMessage()));
+    }
+
+    /**
+     * Captura excepción para cuando otra solicitud modificó el usuario al mismo tiempo.
+     */
+    @ExceptionHandler(ConcurrentUserModificationException.class)
+    public ResponseEntity<Map<String, String>> handleConcurrentModification(ConcurrentUserModificationException ex) {
+        countError(ex, HttpStatus.CONFLICT);
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("mensaje", ex.getMessage()));
+    }
+
+    /**
+     * Captura excepción para cuando un parámetro de la URL, como el id del usuario, tiene un formato invalido.
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Map<String, String>> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        countError(ex, HttpStatus.BAD_REQUEST);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("mensaje", "El parámetro " + ex.getName() + " tiene un formato invalido"));
+    }
+
+    /**
+     * Captura excepción para cuando falta un parámetro obligatorio de la solicitud, como el email a buscar.
+     */
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<Map<String, String>> handleMissingParameter(MissingServletRequestParameterException ex) {
+        countError(ex, HttpStatus.BAD_REQUEST);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("mensaje", "El parámetro " + ex.getParameterName() + " es obligatorio"));
+    }
+
+    /**
+     * Captura excepción para cuando un filtro de la búsqueda, como una fecha, tiene un formato invalido.
+     */
+    @ExceptionHandler(BindException.class)
+    public ResponseEntity<Map<String, String>> handleBindException(BindException ex) {
+        countError(ex, HttpStatus.BAD_REQUEST);
+        String campo = ex.getFieldErrors().stream()
+                .map(FieldError::getField)
+                .findFirst()
+                .orElse(ex.getObjectName());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("mensaje", "El parámetro " + campo + " tiene un formato invalido"));
+    }
+
+    /**
+     * Cuenta las respuestas de error por tipo de excepción y estado HTTP en la métrica api.errors.
+     */
+    private void countError(Exception ex, HttpStatus status) {
+        Counter.builder("api.errors")
+                .description("Respuestas de error por tipo de excepción")
+                .tag("exception", ex.getClass().getSimpleName())
+                .tag("status", String.valueOf(status.value()))
+                .register(meterRegistry)
+                .increment();
+    }
+
 }
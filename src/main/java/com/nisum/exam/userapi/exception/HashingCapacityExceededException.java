@@ -0,0 +1,7 @@
+package com.nisum.exam.userapi.exception;
+
+public class HashingCapacityExceededException extends RuntimeException {
+    public HashingCapacityExceededException() {
+        super("El servicio está procesando demasiadas solicitudes, intente nuevamente en unos segundos");
+    }
+}
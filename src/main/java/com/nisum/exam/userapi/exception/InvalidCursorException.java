@@ -0,0 +1,7 @@
+package com.nisum.exam.userapi.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException() {
+        super("El cursor de paginación no es válido");
+    }
+}
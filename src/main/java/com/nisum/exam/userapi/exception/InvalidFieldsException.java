@@ -0,0 +1,9 @@
+package com.nisum.exam.userapi.exception;
+
+import java.util.Set;
+
+public class InvalidFieldsException extends RuntimeException {
+    public InvalidFieldsException(Set<String> unknown, Set<String> valid) {
+        super("Campos desconocidos en fields: " + String.join(", ", unknown) + ". Campos válidos: " + String.join(", ", valid));
+    }
+}
@@ -1,9 +1,15 @@
 package com.nisum.exam.userapi.exception;
 
+import java.util.UUID;
+
 public class UserNotFoundException extends RuntimeException {
 
     public UserNotFoundException(String email) {
         super("No se encontró ningún usuario con el email: " + email);
     }
 
+    public UserNotFoundException(UUID id) {
+        super("No se encontró ningún usuario con el id: " + id);
+    }
+
 }
@@ -0,0 +1,8 @@
+package com.nisum.exam.userapi.exception;
+
+public class UserVersionMismatchException extends RuntimeException {
+
+    public UserVersionMismatchException() {
+        super("El usuario fue modificado después de la versión indicada en If-Match");
+    }
+}
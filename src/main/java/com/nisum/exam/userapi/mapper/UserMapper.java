@@ -1,12 +1,17 @@
 package com.nisum.exam.userapi.mapper;
 
 
+import com.nisum.exam.userapi.dto.projection.UserRowDTO;
+import com.nisum.exam.userapi.dto.response.PhoneResponseDTO;
+import com.nisum.exam.userapi.dto.response.UserResponseDTO;
 import com.nisum.exam.userapi.entity.PhoneEntity;
 import com.nisum.exam.userapi.entity.UserEntity;
 import com.nisum.exam.userapi.model.Phone;
 import com.nisum.exam.userapi.model.User;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -37,14 +42,15 @@ public class UserMapper {
                 .created(userEntity.getCreated())
                 .modified(userEntity.getModified())
                 .lastLogin(userEntity.getLastLogin())
-                .isActive(userEntity.getIsActive() == null ? Boolean.FALSE : Boolean.TRUE)
+                .isActive(Boolean.TRUE.equals(userEntity.getIsActive()))
                 .token(userEntity.getToken())
+                .version(userEntity.getVersion())
                 .build();
 
     }
 
     /**
-     * Convierte un User en un UserEntity
+     * Convierte un User en un UserEntity, junto con sus telefonos ya asociados a la entidad.
      *
      * @param user El modelo de usuario a convertir.
      * @return UserEntity respectiva entidad de usuario.
@@ -59,25 +65,134 @@ public class UserMapper {
         userEntity.setModified(user.getModified());
         userEntity.setLastLogin(user.getLastLogin());
         userEntity.setToken(user.getToken());
-        userEntity.setIsActive(user.getIsActive() == null ? Boolean.TRUE : Boolean.FALSE);
+        userEntity.setVersion(user.getVersion());
+        // Sin valor el usuario queda activo; el valor se guarda tal cual para poder filtrar por is_active
+        userEntity.setIsActive(user.getIsActive() == null ? Boolean.TRUE : user.getIsActive());
+
+        List<Phone> phones = user.getPhones() != null ? user.getPhones() : List.of();
+        List<PhoneEntity> phoneEntities = new ArrayList<>(phones.size());
+        for (Phone phone : phones) {
+            phoneEntities.add(toPhoneEntity(phone, userEntity));
+        }
+        userEntity.setPhones(phoneEntities);
         return userEntity;
     }
 
 
     /**
-     * Convierte un phone en un PhoneEntity
+     * Convierte un phone en un PhoneEntity del usuario indicado
      *
-     * @param phone El modelo de phone a convertir.
+     * @param phone      El modelo de phone a convertir.
+     * @param userEntity usuario al que pertenece el telefono.
      * @return PhoneEntity respectiva entidad de telefono.
      */
-    public static PhoneEntity toPhoneEntity(Phone phone) {
+    public static PhoneEntity toPhoneEntity(Phone phone, UserEntity userEntity) {
         PhoneEntity phoneEntity = new PhoneEntity();
         phoneEntity.setNumber(phone.getNumber());
         phoneEntity.setCityCode(phone.getCitycode());
         phoneEntity.setCountryCode(phone.getCountrycode());
-        UserEntity userEntity = new UserEntity();
-        userEntity.setId(phone.getUserId());
         phoneEntity.setUser(userEntity);
         return phoneEntity;
     }
-}
\ No newline at end of file
+
+    /**
+     * Convierte una UserEntity directamente en el DTO de respuesta, sin pasar por el modelo User:
+     * se copia una sola vez la lista de telefonos.
+     *
+     * @param userEntity La entidad de usuario a convertir.
+     * @return UserResponseDTO DTO de respuesta de usuario.
+     */
+    public static UserResponseDTO toUserResponseDTO(UserEntity userEntity) {
+        List<PhoneEntity> phoneEntities = userEntity.getPhones();
+        List<PhoneResponseDTO> phones = new ArrayList<>(phoneEntities.size());
+        for (PhoneEntity phoneEntity : phoneEntities) {
+            phones.add(PhoneResponseDTO.builder()
+                    .number(phoneEntity.getNumber())
+                    .citycode(phoneEntity.getCityCode())
+                    .countrycode(phoneEntity.getCountryCode())
+                    .build());
+        }
+
+        return UserResponseDTO.builder()
+                .id(userEntity.getId())
+                .name(userEntity.getName())
+                .email(userEntity.getEmail())
+                .password(userEntity.getPassword())
+                .phones(phones)
+                .created(userEntity.getCreated())
+                .modified(userEntity.getModified())
+                .lastLogin(userEntity.getLastLogin() != null ? userEntity.getLastLogin() : userEntity.getCreated())
+                .token(userEntity.getToken())
+                .isActive(Boolean.TRUE.equals(userEntity.getIsActive()))
+                .version(userEntity.getVersion())
+                .build();
+    }
+
+    /**
+     * Convierte un User en el DTO de respuesta de usuario.
+     *
+     * @param user El modelo de usuario a convertir.
+     * @return UserResponseDTO DTO de respuesta de usuario.
+     */
+    public static UserResponseDTO toUserResponseDTO(User user) {
+        List<PhoneResponseDTO> phones = new ArrayList<>();
+        if (user.getPhones() != null) {
+            user.getPhones().forEach(p -> {
+                phones.add(PhoneResponseDTO.builder()
+                        .number(p.getNumber())
+                        .citycode(p.getCitycode())
+                        .countrycode(p.getCountrycode())
+                        .build());
+            });
+        }
+
+        return UserResponseDTO.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .phones(phones)
+                .created(user.getCreated())
+                .modified(user.getModified())
+                .lastLogin(user.getLastLogin() != null ? user.getLastLogin() : user.getCreated())
+                .token(user.getToken())
+                .isActive(user.getIsActive() != null && user.getIsActive())
+                .version(user.getVersion())
+                .build();
+    }
+
+    /**
+     * Convierte las filas de la proyección de un usuario, una por telefono, en el DTO de respuesta.
+     * La respuesta no incluye la contraseña, que la proyección no lee.
+     *
+     * @param rows filas de un mismo usuario, al menos una.
+     * @return UserResponseDTO DTO de respuesta de usuario.
+     */
+    public static UserResponseDTO toUserResponseDTO(List<UserRowDTO> rows) {
+        List<PhoneResponseDTO> phones = new ArrayList<>();
+        rows.forEach(row -> {
+            // Con LEFT JOIN un usuario sin telefonos llega en una fila con phoneId en null
+            if (row.getPhoneId() != null) {
+                phones.add(PhoneResponseDTO.builder()
+                        .number(row.getNumber())
+                        .citycode(row.getCityCode())
+                        .countrycode(row.getCountryCode())
+                        .build());
+            }
+        });
+
+        UserRowDTO user = rows.get(0);
+        return UserResponseDTO.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .phones(phones)
+                .created(user.getCreated())
+                .modified(user.getModified())
+                .lastLogin(user.getLastLogin() != null ? user.getLastLogin() : user.getCreated())
+                .token(user.getToken())
+                .isActive(Boolean.TRUE.equals(user.getIsActive()))
+                .version(user.getVersion())
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.nisum.exam.userapi.model;
+
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * Formatos aceptados por la importación y la exportación masiva de usuarios.
+ */
+public enum ImportFormat {
+
+    NDJSON,
+    CSV;
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    /**
+     * Obtiene el formato a partir del Content-Type de la petición.
+     *
+     * @param contentType Content-Type recibido
+     * @return ImportFormat formato correspondiente, NDJSON si no es CSV.
+     */
+    public static ImportFormat from(MediaType contentType) {
+        return contentType != null && contentType.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE)) ? CSV : NDJSON;
+    }
+
+    /**
+     * Obtiene el formato de la respuesta a partir del header Accept de la petición.
+     *
+     * @param accept header Accept recibido, puede ser null
+     * @return ImportFormat CSV si se pide text/csv de forma explícita, si no NDJSON.
+     */
+    public static ImportFormat fromAccept(String accept) {
+        if (accept == null) {
+            return NDJSON;
+        }
+        MediaType csv = MediaType.parseMediaType(TEXT_CSV_VALUE);
+        List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+        MediaType.sortBySpecificityAndQuality(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.isWildcardType()) {
+                continue;
+            }
+            if (mediaType.isCompatibleWith(csv)) {
+                return CSV;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+                return NDJSON;
+            }
+        }
+        return NDJSON;
+    }
+}
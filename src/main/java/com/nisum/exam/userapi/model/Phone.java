@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.UUID;
+
 
 /**
  * Clase que representa el modelado de phone.
@@ -19,5 +21,5 @@ public class Phone {
     private String number;
     private String citycode;
     private String countrycode;
-    private String userId;
+    private UUID userId;
 }
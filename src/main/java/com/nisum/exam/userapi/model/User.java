@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Clase que representa el modelo user.
@@ -17,7 +18,7 @@ import java.util.List;
 @Builder(toBuilder = true)
 public class User {
 
-    private String id;
+    private UUID id;
     private String name;
     private String email;
     private String password;
@@ -27,4 +28,5 @@ public class User {
     private LocalDate lastLogin;
     private String token;
     private Boolean isActive;
+    private Long version;
 }
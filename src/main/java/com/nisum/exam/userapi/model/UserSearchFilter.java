@@ -0,0 +1,31 @@
+package com.nisum.exam.userapi.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Clase que representa los filtros de la búsqueda de usuarios. Los filtros en null no se aplican
+ * y los rangos de fechas incluyen ambos extremos.
+ */
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class UserSearchFilter {
+
+    private Boolean active;
+    private LocalDate createdFrom;
+    private LocalDate createdTo;
+    private LocalDate modifiedFrom;
+    private LocalDate modifiedTo;
+    private LocalDate lastLoginFrom;
+    private LocalDate lastLoginTo;
+    private String namePrefix;
+    private String countryCode;
+    private String cityCode;
+}
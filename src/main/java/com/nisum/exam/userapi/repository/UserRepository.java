@@ -1,20 +1,126 @@
 package com.nisum.exam.userapi.repository;
 
+import com.nisum.exam.userapi.dto.projection.UserRowDTO;
 import com.nisum.exam.userapi.entity.UserEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.nisum.exam.userapi.util.Constants.STREAM_FETCH_SIZE;
+import static com.nisum.exam.userapi.util.Constants.USER_QUERIES_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 /**
  * Repositorio para gestionar la entidad UserEntity en la base de datos.
  */
-public interface UserRepository extends JpaRepository<UserEntity, Long> {
+public interface UserRepository extends JpaRepository<UserEntity, UUID>, UserSearchRepository {
+
+    String USER_ROWS_QUERY = "select new com.nisum.exam.userapi.dto.projection.UserRowDTO(u.id, u.name, u.email, "
+            + "u.created, u.modified, u.lastLogin, u.token, u.isActive, u.version, p.id, p.number, p.cityCode, p.countryCode) "
+            + "from UserEntity u left join u.phones p ";
 
     /**
-     * Busca un usuario por su email.
+     * Busca un usuario por su email. El resultado se guarda en la cache de consultas de Hibernate
+     * hasta la siguiente escritura en la tabla users.
      *
      * @param email la dirección de correo electrónico del usuario a buscar
      * @return Optional<UserEntity> un Optional que contiene el UserEntity correspondiente.
      */
+    @EntityGraph(attributePaths = "phones")
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = USER_QUERIES_CACHE_REGION)
+    })
     Optional<UserEntity> findByEmail(String email);
-}
\ No newline at end of file
+
+    /**
+     * Obtiene el usuario con el id indicado junto con sus telefonos en una sola consulta,
+     * sin leer la contraseña. El resultado se guarda en la cache de consultas.
+     *
+     * @param id id del usuario
+     * @return List<UserRowDTO> una fila por telefono, o vacía si el usuario no existe.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = USER_QUERIES_CACHE_REGION)
+    })
+    @Query(USER_ROWS_QUERY + "where u.id = :id order by p.id")
+    List<UserRowDTO> findRowsById(@Param("id") UUID id);
+
+    /**
+     * Obtiene el usuario con el email indicado junto con sus telefonos en una sola consulta,
+     * sin leer la contraseña. El resultado se guarda en la cache de consultas.
+     *
+     * @param email correo electrónico del usuario, ya normalizado
+     * @return List<UserRowDTO> una fila por telefono, o vacía si el usuario no existe.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = USER_QUERIES_CACHE_REGION)
+    })
+    @Query(USER_ROWS_QUERY + "where u.email = :email order by p.id")
+    List<UserRowDTO> findRowsByEmail(@Param("email") String email);
+
+    /**
+     * Obtiene, en una sola consulta, cuáles de los emails indicados ya están registrados.
+     *
+     * @param emails emails a verificar
+     * @return Set<String> emails que ya existen.
+     */
+    @Query("select u.email from UserEntity u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Obtiene la primera página de usuarios ordenados por id, guardada en la cache de consultas.
+     *
+     * @param pageable tamaño de la página a leer
+     * @return List<UserEntity> usuarios de la primera página.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = USER_QUERIES_CACHE_REGION)
+    })
+    List<UserEntity> findByOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Obtiene la página de usuarios siguiente al id indicado (paginación por keyset), guardada
+     * en la cache de consultas.
+     *
+     * @param id       id del último usuario de la página anterior
+     * @param pageable tamaño de la página a leer
+     * @return List<UserEntity> usuarios con id mayor al indicado.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = USER_QUERIES_CACHE_REGION)
+    })
+    List<UserEntity> findByIdGreaterThanOrderByIdAsc(UUID id, Pageable pageable);
+
+    /**
+     * Recorre todos los usuarios ordenados por id sobre un cursor JDBC,
+     * sin cargar la tabla completa en memoria. Los teléfonos se leen en la misma consulta.
+     * Debe consumirse dentro de una transacción.
+     *
+     * @return Stream<UserEntity> flujo de usuarios que debe cerrarse al terminar.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select u from UserEntity u left join fetch u.phones order by u.id")
+    Stream<UserEntity> streamAllOrderById();
+}
@@ -0,0 +1,23 @@
+package com.nisum.exam.userapi.repository;
+
+import com.nisum.exam.userapi.entity.UserEntity;
+import com.nisum.exam.userapi.model.UserSearchFilter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Búsqueda de usuarios con filtros opcionales, agregada a UserRepository.
+ */
+public interface UserSearchRepository {
+
+    /**
+     * Busca los usuarios que cumplen los filtros, ordenados por id y paginados por keyset.
+     *
+     * @param filter filtros a aplicar; los que vienen en null se ignoran
+     * @param after  id del último usuario de la página anterior, o null para la primera página
+     * @param limit  cantidad máxima de usuarios a leer
+     * @return List<UserEntity> usuarios encontrados.
+     */
+    List<UserEntity> search(UserSearchFilter filter, UUID after, int limit);
+}
@@ -0,0 +1,99 @@
+package com.nisum.exam.userapi.repository;
+
+import com.nisum.exam.userapi.entity.PhoneEntity;
+import com.nisum.exam.userapi.entity.UserEntity;
+import com.nisum.exam.userapi.model.UserSearchFilter;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Implementación de la búsqueda de usuarios con Criteria API: solo se agregan al WHERE los filtros
+ * enviados, para que la base de datos elija el índice de ese filtro (ver V3__add_user_search_indexes.sql).
+ * Los filtros de teléfonos se resuelven con EXISTS, sin duplicar usuarios con varios teléfonos.
+ */
+public class UserSearchRepositoryImpl implements UserSearchRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final EntityManager entityManager;
+
+    public UserSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<UserEntity> search(UserSearchFilter filter, UUID after, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserEntity> query = criteriaBuilder.createQuery(UserEntity.class);
+        Root<UserEntity> user = query.from(UserEntity.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getActive() != null) {
+            predicates.add(criteriaBuilder.equal(user.get("isActive"), filter.getActive()));
+        }
+        addRange(criteriaBuilder, predicates, user.get("created"), filter.getCreatedFrom(), filter.getCreatedTo());
+        addRange(criteriaBuilder, predicates, user.get("modified"), filter.getModifiedFrom(), filter.getModifiedTo());
+        addRange(criteriaBuilder, predicates, user.get("lastLogin"), filter.getLastLoginFrom(), filter.getLastLoginTo());
+        if (filter.getNamePrefix() != null) {
+            // Un LIKE con parámetro no usa el índice por nombre; el rango equivalente sí
+            String prefix = filter.getNamePrefix();
+            predicates.add(criteriaBuilder.greaterThanOrEqualTo(user.get("name"), prefix));
+            predicates.add(criteriaBuilder.lessThan(user.get("name"), prefix + Character.MAX_VALUE));
+            predicates.add(criteriaBuilder.like(user.get("name"), escapeLike(prefix) + "%", LIKE_ESCAPE));
+        }
+        if (filter.getCountryCode() != null || filter.getCityCode() != null) {
+            predicates.add(criteriaBuilder.exists(phonesMatching(criteriaBuilder, query, user, filter)));
+        }
+        if (after != null) {
+            predicates.add(criteriaBuilder.greaterThan(user.get("id"), after));
+        }
+
+        query.select(user)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(criteriaBuilder.asc(user.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static Subquery<UUID> phonesMatching(CriteriaBuilder criteriaBuilder, CriteriaQuery<?> query,
+                                                 Root<UserEntity> user, UserSearchFilter filter) {
+        Subquery<UUID> phones = query.subquery(UUID.class);
+        Root<PhoneEntity> phone = phones.from(PhoneEntity.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(criteriaBuilder.equal(phone.get("user"), user));
+        if (filter.getCountryCode() != null) {
+            predicates.add(criteriaBuilder.equal(phone.get("countryCode"), filter.getCountryCode()));
+        }
+        if (filter.getCityCode() != null) {
+            predicates.add(criteriaBuilder.equal(phone.get("cityCode"), filter.getCityCode()));
+        }
+        // Se selecciona user_id y no el id del teléfono para que el índice por país y ciudad cubra la subconsulta
+        return phones.select(phone.get("user").get("id")).where(predicates.toArray(new Predicate[0]));
+    }
+
+    private static void addRange(CriteriaBuilder criteriaBuilder, List<Predicate> predicates, Path<LocalDate> path,
+                                 LocalDate from, LocalDate to) {
+        if (from != null) {
+            predicates.add(criteriaBuilder.greaterThanOrEqualTo(path, from));
+        }
+        if (to != null) {
+            predicates.add(criteriaBuilder.lessThanOrEqualTo(path, to));
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
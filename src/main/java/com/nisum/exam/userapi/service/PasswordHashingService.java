@@ -0,0 +1,118 @@
+package com.nisum.exam.userapi.service;
+
+import com.nisum.exam.userapi.config.HashingProperties;
+import com.nisum.exam.userapi.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servicio encargado de encriptar contraseñas fuera de los hilos de Tomcat, en un pool
+ * de tamaño acotado a los núcleos disponibles y con una cola limitada. Cuando la cola
+ * está llena la solicitud se rechaza en lugar de acumular trabajo.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Timer hashingTimer;
+
+    private final Counter rejectedCounter;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, HashingProperties hashingProperties, MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = new ThreadPoolExecutor(hashingProperties.getThreads(), hashingProperties.getThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hashingProperties.getQueueCapacity()),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // Publica la profundidad de la cola, hilos activos y tareas completadas como executor.*{name=password.hashing}
+        new ExecutorServiceMetrics(executor, "password.hashing", Tags.empty()).bindTo(meterRegistry);
+        this.hashingTimer = Timer.builder("password.hashing.latency")
+                .description("Tiempo de CPU usado en encriptar una contraseña")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("Solicitudes rechazadas por tener la cola de encriptación llena")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Encripta la contraseña en el pool de encriptación.
+     *
+     * @param rawPassword contraseña en texto plano
+     * @return CompletableFuture<String> que se completa con la contraseña encriptada.
+     * @throws HashingCapacityExceededException si la cola de encriptación está llena
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> hash(rawPassword), executor);
+        } catch (RejectedExecutionException ex) {
+            rejectedCounter.increment();
+            throw new HashingCapacityExceededException();
+        }
+    }
+
+    /**
+     * Encripta la contraseña en el pool de encriptación y, si la cola está llena, en el hilo que llama.
+     * Usado por procesos masivos que deben frenar su propio ritmo en lugar de recibir un rechazo.
+     *
+     * @param rawPassword contraseña en texto plano
+     * @return CompletableFuture<String> que se completa con la contraseña encriptada.
+     */
+    public CompletableFuture<String> encodeWithCallerRuns(String rawPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> hash(rawPassword), executor);
+        } catch (RejectedExecutionException ex) {
+            return CompletableFuture.completedFuture(hash(rawPassword));
+        }
+    }
+
+    /**
+     * Encripta la contraseña de un usuario existente solo cuando hace falta: si la contraseña
+     * no cambió y el hash guardado usa el algoritmo y costo actuales se conserva el hash guardado;
+     * si el hash fue creado con parámetros anteriores se vuelve a encriptar con los actuales.
+     *
+     * @param rawPassword     contraseña en texto plano recibida
+     * @param encodedPassword hash guardado actualmente
+     * @return CompletableFuture<String> que se completa con el hash a guardar.
+     * @throws HashingCapacityExceededException si la cola de encriptación está llena
+     */
+    public CompletableFuture<String> encodeIfChanged(String rawPassword, String encodedPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> hashingTimer.record(() ->
+                    encodedPassword != null
+                            && !passwordEncoder.upgradeEncoding(encodedPassword)
+                            && passwordEncoder.matches(rawPassword, encodedPassword)
+                            ? encodedPassword
+                            : passwordEncoder.encode(rawPassword)), executor);
+        } catch (RejectedExecutionException ex) {
+            rejectedCounter.increment();
+            throw new HashingCapacityExceededException();
+        }
+    }
+
+    private String hash(String rawPassword) {
+        return hashingTimer.record(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
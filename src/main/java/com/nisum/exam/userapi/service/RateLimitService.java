@@ -0,0 +1,93 @@
+package com.nisum.exam.userapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nisum.exam.userapi.config.RateLimitProperties;
+import com.nisum.exam.userapi.exception.RateLimitExceededException;
+import com.nisum.exam.userapi.util.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servicio encargado de limitar las solicitudes de cada cliente por endpoint: un token bucket para la tasa
+ * y un contador de solicitudes en curso para la concurrencia. Los baldes y contadores se guardan en caches
+ * acotados que descartan los clientes inactivos, y se actualizan con operaciones atómicas sin bloqueos.
+ */
+@Service
+public class RateLimitService {
+
+    private static final Runnable NO_RELEASE = () -> {
+    };
+
+    private final RateLimitProperties rateLimitProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<String, TokenBucket> buckets;
+
+    private final Cache<String, AtomicInteger> inFlight;
+
+    public RateLimitService(RateLimitProperties rateLimitProperties, MeterRegistry meterRegistry) {
+        this.rateLimitProperties = rateLimitProperties;
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(rateLimitProperties.getMaxClients())
+                .expireAfterAccess(rateLimitProperties.getIdleTimeout())
+                .build();
+        this.inFlight = Caffeine.newBuilder()
+                .maximumSize(rateLimitProperties.getMaxClients())
+                .expireAfterAccess(rateLimitProperties.getIdleTimeout())
+                .build();
+    }
+
+    /**
+     * Registra una solicitud del cliente en el endpoint indicado.
+     *
+     * @param endpoint nombre del endpoint, con su límite en rate-limit.endpoints
+     * @param client   identificador del cliente (llave de API o IP)
+     * @return Runnable que libera el cupo de concurrencia y debe ejecutarse al terminar la solicitud.
+     * @throws RateLimitExceededException si el cliente superó la tasa o las solicitudes simultáneas permitidas
+     */
+    public Runnable acquire(String endpoint, String client) {
+        RateLimitProperties.Limit limit = rateLimitProperties.getEndpoints().get(endpoint);
+        if (!rateLimitProperties.isEnabled() || limit == null) {
+            return NO_RELEASE;
+        }
+        String key = endpoint + '|' + client;
+
+        Runnable release = NO_RELEASE;
+        if (limit.getMaxConcurrent() > 0) {
+            AtomicInteger running = inFlight.get(key, k -> new AtomicInteger());
+            if (running.incrementAndGet() > limit.getMaxConcurrent()) {
+                running.decrementAndGet();
+                reject(endpoint, "concurrency");
+                throw new RateLimitExceededException(1);
+            }
+            release = running::decrementAndGet;
+        }
+
+        long now = System.nanoTime();
+        long waitNanos = buckets.get(key, k -> new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond(), now))
+                .tryConsume(now);
+        if (waitNanos > 0) {
+            release.run();
+            reject(endpoint, "rate");
+            // Retry-After se expresa en segundos enteros, redondeados hacia arriba
+            throw new RateLimitExceededException(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+        }
+        return release;
+    }
+
+    private void reject(String endpoint, String reason) {
+        Counter.builder("rate.limit.rejected")
+                .description("Solicitudes rechazadas por el límite de tasa o de concurrencia por cliente")
+                .tag("endpoint", endpoint)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+}
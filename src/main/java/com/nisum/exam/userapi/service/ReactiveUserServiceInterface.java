@@ -0,0 +1,17 @@
+package com.nisum.exam.userapi.service;
+
+
+import com.nisum.exam.userapi.dto.response.UserPageResponseDTO;
+import com.nisum.exam.userapi.dto.response.UserResponseDTO;
+import com.nisum.exam.userapi.model.User;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserServiceInterface {
+
+    public Mono<UserPageResponseDTO> getUsers(String cursor, int size);
+
+    public Flux<UserResponseDTO> streamUsers();
+
+    public Mono<UserResponseDTO> saveUser(User user);
+}
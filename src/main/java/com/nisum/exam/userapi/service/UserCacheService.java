@@ -0,0 +1,68 @@
+package com.nisum.exam.userapi.service;
+
+import com.nisum.exam.userapi.mapper.UserMapper;
+import com.nisum.exam.userapi.model.User;
+import com.nisum.exam.userapi.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.SessionFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Optional;
+
+import static com.nisum.exam.userapi.config.CacheConfig.USERS_CACHE;
+import static com.nisum.exam.userapi.config.MetricsConfig.OPERATION_TAG;
+import static com.nisum.exam.userapi.config.MetricsConfig.USER_OPERATIONS_METRIC;
+import static com.nisum.exam.userapi.util.Constants.USER_QUERIES_CACHE_REGION;
+
+/**
+ * Servicio encargado de las búsquedas de usuarios por email a través de la cache en memoria,
+ * evitando ir a la base de datos en las cuentas consultadas con frecuencia.
+ */
+@Service
+public class UserCacheService {
+
+    private final UserRepository userRepository;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public UserCacheService(UserRepository userRepository, EntityManagerFactory entityManagerFactory) {
+        this.userRepository = userRepository;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Busca un usuario por email, primero en cache y luego en la base de datos.
+     * Solo se guardan en cache los usuarios encontrados.
+     *
+     * @param email correo electrónico del usuario a buscar
+     * @return Optional<User> un Optional que contiene el modelo del usuario.
+     */
+    @Timed(value = USER_OPERATIONS_METRIC, extraTags = {OPERATION_TAG, "findByEmail"}, description = "Tiempo de buscar un usuario por email, en cache o base de datos")
+    @Cacheable(cacheNames = USERS_CACHE, key = "#email", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        return userRepository.findByEmail(email).map(UserMapper::toUserModel);
+    }
+
+    /**
+     * Invalida el usuario guardado en cache para el email indicado.
+     *
+     * @param email correo electrónico del usuario modificado
+     */
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#email")
+    public void evict(String email) {
+        // La invalidación la realiza @CacheEvict
+    }
+
+    /**
+     * Invalida las consultas de usuarios guardadas en la cache de Hibernate. Se usa después de escrituras
+     * que no pasan por JPA (R2DBC), que Hibernate no detecta por sí mismo.
+     */
+    public void evictQueries() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(USER_QUERIES_CACHE_REGION);
+    }
+}
@@ -0,0 +1,12 @@
+package com.nisum.exam.userapi.service;
+
+
+import com.nisum.exam.userapi.dto.response.UserResponseDTO;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface UserExportServiceInterface {
+
+    public void exportUsers(UUID after, Consumer<UserResponseDTO> consumer);
+}
@@ -0,0 +1,13 @@
+package com.nisum.exam.userapi.service;
+
+
+import com.nisum.exam.userapi.dto.response.UserImportResultDTO;
+import com.nisum.exam.userapi.model.ImportFormat;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public interface UserImportServiceInterface {
+
+    public void importUsers(Stream<String> lines, ImportFormat format, Consumer<UserImportResultDTO> consumer);
+}
@@ -1,16 +1,30 @@
 package com.nisum.exam.userapi.service;
 
 
+import com.nisum.exam.userapi.dto.response.UserPageResponseDTO;
 import com.nisum.exam.userapi.dto.response.UserResponseDTO;
 import com.nisum.exam.userapi.model.User;
+import com.nisum.exam.userapi.model.UserSearchFilter;
 
-import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface UserServiceInterface {
 
-    public List<UserResponseDTO> getUsers();
+    public UserPageResponseDTO getUsers(String cursor, int size);
 
-    public UserResponseDTO saveUser(User user);
+    public UserPageResponseDTO searchUsers(UserSearchFilter filter, String cursor, int size);
 
-    public UserResponseDTO updateUser(User user);
+    public UserResponseDTO getUser(UUID id);
+
+    public UserResponseDTO getUserByEmail(String email);
+
+    public void streamUsers(Consumer<UserResponseDTO> consumer);
+
+    public CompletableFuture<UserResponseDTO> saveUser(User user);
+
+    public CompletableFuture<UserResponseDTO> updateUser(User user);
+
+    public CompletableFuture<UserResponseDTO> patchUser(UUID id, User changes);
 }
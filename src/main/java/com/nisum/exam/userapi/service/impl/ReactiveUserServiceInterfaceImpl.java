@@ -0,0 +1,256 @@
+package com.nisum.exam.userapi.service.impl;
+
+
+import com.nisum.exam.userapi.dto.response.UserPageResponseDTO;
+import com.nisum.exam.userapi.dto.response.UserResponseDTO;
+import com.nisum.exam.userapi.exception.EmailAlreadyExistsException;
+import com.nisum.exam.userapi.exception.InvalidEmailException;
+import com.nisum.exam.userapi.exception.InvalidPasswordException;
+import com.nisum.exam.userapi.mapper.UserMapper;
+import com.nisum.exam.userapi.model.Phone;
+import com.nisum.exam.userapi.model.User;
+import com.nisum.exam.userapi.service.PasswordHashingService;
+import com.nisum.exam.userapi.service.ReactiveUserServiceInterface;
+import com.nisum.exam.userapi.service.UserCacheService;
+import com.nisum.exam.userapi.util.CursorUtil;
+import com.nisum.exam.userapi.util.FormatValidator;
+import com.nisum.exam.userapi.util.JwtUtil;
+import com.nisum.exam.userapi.util.PersistenceErrors;
+import com.nisum.exam.userapi.util.UuidGenerator;
+import io.r2dbc.spi.Row;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.nisum.exam.userapi.util.Constants.MAX_PAGE_SIZE;
+
+/**
+ * Servicio reactivo de usuarios sobre R2DBC, equivalente a la API bloqueante para el listado, la transmisión
+ * y la creación. Cada usuario se lee junto con sus telefonos en una sola consulta y las filas se agrupan
+ * por id a medida que llegan, respetando la demanda del suscriptor.
+ */
+@Service
+public class ReactiveUserServiceInterfaceImpl implements ReactiveUserServiceInterface {
+
+    private static final String USER_COLUMNS = "u.id, u.name, u.email, u.password, u.created, u.modified, u.last_login, "
+            + "u.token, u.is_active, u.version, p.id AS phone_id, p.number, p.city_code, p.country_code";
+
+    private static final String SELECT_ALL = "SELECT " + USER_COLUMNS
+            + " FROM users u LEFT JOIN phone p ON p.user_id = u.id ORDER BY u.id, p.id";
+
+    private static final String SELECT_FIRST_PAGE = "SELECT " + USER_COLUMNS
+            + " FROM (SELECT * FROM users ORDER BY id LIMIT :limit) u"
+            + " LEFT JOIN phone p ON p.user_id = u.id ORDER BY u.id, p.id";
+
+    private static final String SELECT_PAGE_AFTER = "SELECT " + USER_COLUMNS
+            + " FROM (SELECT * FROM users WHERE id > :cursor ORDER BY id LIMIT :limit) u"
+            + " LEFT JOIN phone p ON p.user_id = u.id ORDER BY u.id, p.id";
+
+    private static final String INSERT_USER = "INSERT INTO users (id, name, email, password, created, last_login, token, is_active)"
+            + " VALUES (:id, :name, :email, :password, :created, :lastLogin, :token, :isActive)";
+
+    private static final String INSERT_PHONE = "INSERT INTO phone (id, number, city_code, country_code, user_id)"
+            + " VALUES (NEXT VALUE FOR phone_seq, :number, :cityCode, :countryCode, :userId)";
+
+    private final DatabaseClient databaseClient;
+
+    private final TransactionalOperator transactionalOperator;
+
+    private final PasswordHashingService passwordHashingService;
+
+    private final JwtUtil jwtUtil;
+
+    private final FormatValidator formatValidator;
+
+    private final UserCacheService userCacheService;
+
+    public ReactiveUserServiceInterfaceImpl(DatabaseClient databaseClient, TransactionalOperator transactionalOperator, PasswordHashingService passwordHashingService, JwtUtil jwtUtil, FormatValidator formatValidator, UserCacheService userCacheService) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.passwordHashingService = passwordHashingService;
+        this.jwtUtil = jwtUtil;
+        this.formatValidator = formatValidator;
+        this.userCacheService = userCacheService;
+    }
+
+    /**
+     * Se obtiene una página de usuarios ordenados por id, usando paginación por keyset.
+     *
+     * @param cursor token de continuación de la página anterior, o null para la primera página.
+     * @param size   cantidad de usuarios por página.
+     * @return Mono<UserPageResponseDTO> página de usuarios con el token de la siguiente página.
+     */
+    @Override
+    public Mono<UserPageResponseDTO> getUsers(String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        // Se pide un registro adicional para saber si existe una página siguiente
+        DatabaseClient.GenericExecuteSpec query = cursor == null
+                ? databaseClient.sql(SELECT_FIRST_PAGE)
+                : databaseClient.sql(SELECT_PAGE_AFTER).bind("cursor", CursorUtil.decode(cursor));
+
+        return readUsers(query.bind("limit", pageSize + 1))
+                .collectList()
+                .map(users -> {
+                    boolean hasNext = users.size() > pageSize;
+                    List<UserResponseDTO> page = hasNext ? users.subList(0, pageSize) : users;
+                    return UserPageResponseDTO.builder()
+                            .users(page)
+                            .nextCursor(hasNext ? CursorUtil.encode(page.get(page.size() - 1).getId()) : null)
+                            .build();
+                });
+    }
+
+    /**
+     * Recorre todos los usuarios en una sola consulta. Las filas se leen según la demanda del suscriptor,
+     * por lo que un cliente lento frena la lectura en lugar de acumular usuarios en memoria.
+     *
+     * @return Flux<UserResponseDTO> usuarios ordenados por id.
+     */
+    @Override
+    public Flux<UserResponseDTO> streamUsers() {
+        return readUsers(databaseClient.sql(SELECT_ALL));
+    }
+
+    /**
+     * Guarda un nuevo usuario con una lista de telefonos. La contraseña se encripta en el pool
+     * de encriptación y el usuario y sus telefonos se insertan en una transacción reactiva.
+     *
+     * @param user Usuario a guardar.
+     * @return Mono<UserResponseDTO> que se completa con la información del usuario guardado.
+     */
+    @Override
+    public Mono<UserResponseDTO> saveUser(User user) {
+        //Se valida que el email y contraseña cumplan con los formatos establecidos
+        user.setEmail(FormatValidator.normalizeEmail(user.getEmail()));
+        if (!formatValidator.isValidEmail(user.getEmail())) {
+            throw new InvalidEmailException();
+        }
+        if (!formatValidator.isValidPassword(user.getPassword())) {
+            throw new InvalidPasswordException();
+        }
+
+        return Mono.fromFuture(passwordHashingService.encode(user.getPassword()))
+                .flatMap(encodedPassword -> insertUser(user, encodedPassword).as(transactionalOperator::transactional))
+                .onErrorMap(PersistenceErrors::isDuplicateEmail, ex -> new EmailAlreadyExistsException(user.getEmail()))
+                .doOnSuccess(created -> {
+                    userCacheService.evict(created.getEmail());
+                    userCacheService.evictQueries();
+                });
+    }
+
+    /**
+     * Completa los datos del usuario nuevo e inserta el usuario y sus telefonos.
+     *
+     * @param user            Usuario a guardar.
+     * @param encodedPassword contraseña ya encriptada.
+     * @return Mono<UserResponseDTO> DTO de respuesta con información del usuario guardado.
+     */
+    private Mono<UserResponseDTO> insertUser(User user, String encodedPassword) {
+        user.setId(UuidGenerator.timeOrdered());
+        user.setPassword(encodedPassword);
+        user.setCreated(LocalDate.now());
+        user.setLastLogin(user.getLastLogin() != null ? user.getLastLogin() : user.getCreated());
+        user.setToken(jwtUtil.generateToken(user.getEmail()));
+        user.setIsActive(true);
+        user.setVersion(0L);
+        List<Phone> phones = user.getPhones() != null ? user.getPhones() : List.of();
+
+        DatabaseClient.GenericExecuteSpec insert = databaseClient.sql(INSERT_USER)
+                .bind("id", user.getId())
+                .bind("email", user.getEmail())
+                .bind("password", user.getPassword())
+                .bind("created", user.getCreated())
+                .bind("lastLogin", user.getLastLogin())
+                .bind("token", user.getToken())
+                .bind("isActive", user.getIsActive());
+        insert = bindNullable(insert, "name", user.getName(), String.class);
+
+        return insert.fetch().rowsUpdated()
+                .thenMany(Flux.fromIterable(phones).concatMap(phone -> insertPhone(user.getId(), phone)))
+                .then(Mono.fromCallable(() -> UserMapper.toUserResponseDTO(user)));
+    }
+
+    private Mono<Integer> insertPhone(UUID userId, Phone phone) {
+        DatabaseClient.GenericExecuteSpec insert = databaseClient.sql(INSERT_PHONE).bind("userId", userId);
+        insert = bindNullable(insert, "number", phone.getNumber(), String.class);
+        insert = bindNullable(insert, "cityCode", phone.getCitycode(), String.class);
+        insert = bindNullable(insert, "countryCode", phone.getCountrycode(), String.class);
+        return insert.fetch().rowsUpdated();
+    }
+
+    /**
+     * Ejecuta la consulta y agrupa las filas consecutivas de un mismo usuario, una por telefono.
+     *
+     * @param query consulta ordenada por id de usuario
+     * @return Flux<UserResponseDTO> un usuario por cada grupo de filas
+     */
+    private Flux<UserResponseDTO> readUsers(DatabaseClient.GenericExecuteSpec query) {
+        return query.map(ReactiveUserServiceInterfaceImpl::toUserRow)
+                .all()
+                .bufferUntilChanged(userRow -> userRow.user.getId())
+                .map(ReactiveUserServiceInterfaceImpl::toUserResponseDTO);
+    }
+
+    private static UserRow toUserRow(Row row) {
+        User user = User.builder()
+                .id(row.get("id", UUID.class))
+                .name(row.get("name", String.class))
+                .email(row.get("email", String.class))
+                .password(row.get("password", String.class))
+                .created(row.get("created", LocalDate.class))
+                .modified(row.get("modified", LocalDate.class))
+                .lastLogin(row.get("last_login", LocalDate.class))
+                .token(row.get("token", String.class))
+                .isActive(row.get("is_active", Boolean.class))
+                .version(row.get("version", Long.class))
+                .build();
+        // Con LEFT JOIN un usuario sin telefonos llega en una fila con phone_id nulo
+        Phone phone = row.get("phone_id", Long.class) == null
+                ? null
+                : Phone.builder()
+                .number(row.get("number", String.class))
+                .citycode(row.get("city_code", String.class))
+                .countrycode(row.get("country_code", String.class))
+                .build();
+        return new UserRow(user, phone);
+    }
+
+    private static UserResponseDTO toUserResponseDTO(List<UserRow> userRows) {
+        List<Phone> phones = new ArrayList<>();
+        userRows.forEach(userRow -> {
+            if (userRow.phone != null) {
+                phones.add(userRow.phone);
+            }
+        });
+        User user = userRows.get(0).user;
+        user.setPhones(phones);
+        return UserMapper.toUserResponseDTO(user);
+    }
+
+    private static <T> DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, String name, T value, Class<T> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+
+    /**
+     * Fila de la consulta: los datos del usuario y, si tiene, uno de sus telefonos.
+     */
+    private static final class UserRow {
+
+        private final User user;
+
+        private final Phone phone;
+
+        private UserRow(User user, Phone phone) {
+            this.user = user;
+            this.phone = phone;
+        }
+    }
+}
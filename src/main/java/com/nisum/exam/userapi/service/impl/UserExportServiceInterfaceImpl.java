@@ -0,0 +1,148 @@
+package com.nisum.exam.userapi.service.impl;
+
+
+import com.nisum.exam.userapi.config.PersistenceProperties;
+import com.nisum.exam.userapi.dto.projection.UserRowDTO;
+import com.nisum.exam.userapi.dto.response.UserResponseDTO;
+import com.nisum.exam.userapi.mapper.UserMapper;
+import com.nisum.exam.userapi.service.UserExportServiceInterface;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static com.nisum.exam.userapi.config.MetricsConfig.OPERATION_TAG;
+import static com.nisum.exam.userapi.config.MetricsConfig.USER_OPERATIONS_METRIC;
+
+/**
+ * Servicio encargado de la exportación de todos los usuarios con sus telefonos.
+ * Se lee con JDBC sobre un cursor de solo avance, sin pasar por el contexto de persistencia,
+ * trayendo persistence.export.fetch-size filas por viaje. Las filas de un mismo usuario llegan
+ * juntas (orden por id) y se entregan al consumidor apenas se completa el usuario, por lo que
+ * la memoria no depende del tamaño de la tabla. H2 embebido ignora el fetch size y arma todo el
+ * resultado antes de entregar la primera fila, por lo que en H2 la consulta se ejecuta con
+ * LAZY_QUERY_EXECUTION activo en la conexión de la transacción.
+ */
+@Service
+public class UserExportServiceInterfaceImpl implements UserExportServiceInterface {
+
+    // Sin ORDER BY sobre el teléfono: así el orden sale de la llave primaria de users y no de ordenar todo el resultado
+    private static final String USER_ROWS_SQL = "SELECT u.id, u.name, u.email, u.created, u.modified, u.last_login, u.token,"
+            + " u.is_active, u.version, p.id AS phone_id, p.number, p.city_code, p.country_code"
+            + " FROM users u LEFT JOIN phone p ON p.user_id = u.id";
+
+    public static final String EXPORT_SQL = USER_ROWS_SQL + " ORDER BY u.id";
+
+    public static final String EXPORT_AFTER_SQL = USER_ROWS_SQL + " WHERE u.id > ? ORDER BY u.id";
+
+    private static final String H2_PRODUCT_NAME = "H2";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserExportServiceInterfaceImpl(DataSource dataSource, PersistenceProperties persistenceProperties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(persistenceProperties.getExport().getFetchSize());
+    }
+
+    /**
+     * Recorre los usuarios ordenados por id, entregándolos uno a uno al consumidor.
+     *
+     * @param after    id del último usuario recibido en una exportación anterior para continuarla, o null para empezar desde el inicio.
+     * @param consumer receptor de cada usuario leído, sin la contraseña.
+     */
+    @Override
+    @Timed(value = USER_OPERATIONS_METRIC, extraTags = {OPERATION_TAG, "exportUsers"}, description = "Tiempo de exportar los usuarios")
+    @Transactional(readOnly = true)
+    public void exportUsers(UUID after, Consumer<UserResponseDTO> consumer) {
+        UserRowCollector collector = new UserRowCollector(consumer);
+        boolean lazy = setLazyQueryExecution(true);
+        try {
+            if (after == null) {
+                jdbcTemplate.query(EXPORT_SQL, collector);
+            } else {
+                jdbcTemplate.query(EXPORT_AFTER_SQL, collector, after);
+            }
+        } finally {
+            // La conexión vuelve al pool; se restablece para no afectar las demás consultas
+            if (lazy) {
+                setLazyQueryExecution(false);
+            }
+        }
+        collector.flush();
+    }
+
+    /**
+     * Activa o desactiva en H2 la ejecución perezosa de consultas, que entrega las filas a medida que
+     * las lee en lugar de armar el resultado completo. Se ejecuta sobre la conexión de la transacción
+     * en curso; con otras bases de datos no hace nada, porque respetan el fetch size.
+     *
+     * @param enabled true para activarla
+     * @return true si la base de datos es H2 y se cambió el valor.
+     */
+    private boolean setLazyQueryExecution(boolean enabled) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!H2_PRODUCT_NAME.equals(connection.getMetaData().getDatabaseProductName())) {
+                return false;
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LAZY_QUERY_EXECUTION " + (enabled ? 1 : 0));
+            }
+            return true;
+        }));
+    }
+
+    /**
+     * Agrupa las filas consecutivas de un mismo usuario y lo entrega cuando llega la fila de otro.
+     */
+    private static final class UserRowCollector implements RowCallbackHandler {
+
+        private final Consumer<UserResponseDTO> consumer;
+
+        private final List<UserRowDTO> rows = new ArrayList<>();
+
+        private UserRowCollector(Consumer<UserResponseDTO> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            UserRowDTO row = new UserRowDTO(
+                    rs.getObject("id", UUID.class),
+                    rs.getString("name"),
+                    rs.getString("email"),
+                    rs.getObject("created", LocalDate.class),
+                    rs.getObject("modified", LocalDate.class),
+                    rs.getObject("last_login", LocalDate.class),
+                    rs.getString("token"),
+                    rs.getObject("is_active", Boolean.class),
+                    rs.getLong("version"),
+                    rs.getObject("phone_id", Long.class),
+                    rs.getString("number"),
+                    rs.getString("city_code"),
+                    rs.getString("country_code"));
+            if (!rows.isEmpty() && !rows.get(0).getId().equals(row.getId())) {
+                flush();
+            }
+            rows.add(row);
+        }
+
+        private void flush() {
+            if (!rows.isEmpty()) {
+                consumer.accept(UserMapper.toUserResponseDTO(rows));
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.nisum.exam.userapi.service.impl;
+
+
+import com.nisum.exam.userapi.dto.request.UserRequestDTO;
+import com.nisum.exam.userapi.dto.response.UserImportResultDTO;
+import com.nisum.exam.userapi.entity.UserEntity;
+import com.nisum.exam.userapi.exception.EmailAlreadyExistsException;
+import com.nisum.exam.userapi.exception.InvalidEmailException;
+import com.nisum.exam.userapi.exception.InvalidPasswordException;
+import com.nisum.exam.userapi.mapper.UserMapper;
+import com.nisum.exam.userapi.model.ImportFormat;
+import com.nisum.exam.userapi.model.User;
+import com.nisum.exam.userapi.repository.UserRepository;
+import com.nisum.exam.userapi.service.PasswordHashingService;
+import com.nisum.exam.userapi.service.UserImportServiceInterface;
+import com.nisum.exam.userapi.util.FormatValidator;
+import com.nisum.exam.userapi.util.JwtUtil;
+import com.nisum.exam.userapi.util.PersistenceErrors;
+import com.nisum.exam.userapi.util.UserImportParser;
+import com.nisum.exam.userapi.util.UuidGenerator;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.nisum.exam.userapi.config.MetricsConfig.OPERATION_TAG;
+import static com.nisum.exam.userapi.config.MetricsConfig.USER_OPERATIONS_METRIC;
+import static com.nisum.exam.userapi.util.Constants.IMPORT_CHUNK_SIZE;
+
+/**
+ * Servicio encargado de la importación masiva de usuarios.
+ * Las líneas se leen y validan a medida que llegan y se procesan en bloques de IMPORT_CHUNK_SIZE:
+ * los emails del bloque se verifican con una sola consulta, las contraseñas se encriptan en paralelo
+ * en el pool de encriptación y los usuarios se insertan en una transacción por bloque usando los
+ * lotes JDBC de Hibernate. El resultado de cada registro se entrega al consumidor con su número de línea.
+ */
+@Service
+public class UserImportServiceInterfaceImpl implements UserImportServiceInterface {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportServiceInterfaceImpl.class);
+
+    private final UserRepository userRepository;
+
+    private final UserImportParser userImportParser;
+
+    private final Validator validator;
+
+    private final FormatValidator formatValidator;
+
+    private final PasswordHashingService passwordHashingService;
+
+    private final JwtUtil jwtUtil;
+
+    private final EntityManager entityManager;
+
+    private final TransactionOperations transactionOperations;
+
+    public UserImportServiceInterfaceImpl(UserRepository userRepository, UserImportParser userImportParser, Validator validator, FormatValidator formatValidator, PasswordHashingService passwordHashingService, JwtUtil jwtUtil, EntityManager entityManager, TransactionOperations transactionOperations) {
+        this.userRepository = userRepository;
+        this.userImportParser = userImportParser;
+        this.validator = validator;
+        this.formatValidator = formatValidator;
+        this.passwordHashingService = passwordHashingService;
+        this.jwtUtil = jwtUtil;
+        this.entityManager = entityManager;
+        this.transactionOperations = transactionOperations;
+    }
+
+    /**
+     * Importa los usuarios contenidos en las líneas recibidas. Las líneas en blanco se ignoran
+     * y en CSV la primera línea es el encabezado. Los resultados con error se entregan apenas
+     * se detectan, por lo que pueden llegar antes que los creados de líneas anteriores.
+     *
+     * @param lines    líneas del archivo a importar
+     * @param format   formato de las líneas
+     * @param consumer receptor del resultado de cada registro.
+     */
+    @Override
+    @Timed(value = USER_OPERATIONS_METRIC, extraTags = {OPERATION_TAG, "importUsers"}, description = "Tiempo de importar un archivo de usuarios")
+    public void importUsers(Stream<String> lines, ImportFormat format, Consumer<UserImportResultDTO> consumer) {
+        Iterator<String> iterator = lines.iterator();
+        long lineNumber = 0;
+
+        Function<String, UserRequestDTO> parser = userImportParser::parseJson;
+        if (format == ImportFormat.CSV) {
+            if (!iterator.hasNext()) {
+                return;
+            }
+            lineNumber++;
+            try {
+                parser = userImportParser.csvParser(iterator.next());
+            } catch (IllegalArgumentException ex) {
+                consumer.accept(error(lineNumber, null, ex.getMessage()));
+                return;
+            }
+        }
+
+        List<ImportRecord> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        while (iterator.hasNext()) {
+            String line = iterator.next();
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            ImportRecord record = parse(lineNumber, line, parser, consumer);
+            if (record != null) {
+                chunk.add(record);
+            }
+            if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                importChunk(chunk, consumer);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, consumer);
+        }
+    }
+
+    /**
+     * Convierte y valida una línea con las mismas reglas que el POST de usuarios.
+     *
+     * @return ImportRecord registro válido, o null si se entregó un error al consumidor.
+     */
+    private ImportRecord parse(long lineNumber, String line, Function<String, UserRequestDTO> parser, Consumer<UserImportResultDTO> consumer) {
+        UserRequestDTO userRequestDTO;
+        try {
+            userRequestDTO = parser.apply(line);
+        } catch (IllegalArgumentException ex) {
+            consumer.accept(error(lineNumber, null, ex.getMessage()));
+            return null;
+        }
+
+        userRequestDTO.setEmail(FormatValidator.normalizeEmail(userRequestDTO.getEmail()));
+        String email = userRequestDTO.getEmail();
+        Set<ConstraintViolation<UserRequestDTO>> violations = validator.validate(userRequestDTO);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<UserRequestDTO> violation = violations.iterator().next();
+            consumer.accept(error(lineNumber, email, violation.getPropertyPath() + ": " + violation.getMessage()));
+            return null;
+        }
+        if (!formatValidator.isValidEmail(email)) {
+            consumer.accept(error(lineNumber, email, new InvalidEmailException().getMessage()));
+            return null;
+        }
+        if (!formatValidator.isValidPassword(userRequestDTO.getPassword())) {
+            consumer.accept(error(lineNumber, email, new InvalidPasswordException().getMessage()));
+            return null;
+        }
+        return new ImportRecord(lineNumber, userRequestDTO.toModel());
+    }
+
+    /**
+     * Descarta los emails ya registrados o repetidos en el bloque, encripta las contraseñas
+     * restantes en paralelo y guarda el bloque.
+     */
+    private void importChunk(List<ImportRecord> chunk, Consumer<UserImportResultDTO> consumer) {
+        Set<String> existingEmails = userRepository.findExistingEmails(
+                chunk.stream().map(record -> record.user.getEmail()).collect(Collectors.toSet()));
+
+        Set<String> seenEmails = new HashSet<>();
+        List<ImportRecord> accepted = new ArrayList<>(chunk.size());
+        for (ImportRecord record : chunk) {
+            String email = record.user.getEmail();
+            if (existingEmails.contains(email) || !seenEmails.add(email)) {
+                consumer.accept(error(record.line, email, new EmailAlreadyExistsException(email).getMessage()));
+            } else {
+                // Si la cola de encriptación está llena la contraseña se encripta en este mismo hilo
+                record.encodedPassword = passwordHashingService.encodeWithCallerRuns(record.user.getPassword());
+                accepted.add(record);
+            }
+        }
+
+        List<ImportRecord> encoded = new ArrayList<>(accepted.size());
+        for (ImportRecord record : accepted) {
+            try {
+                record.user.setPassword(record.encodedPassword.join());
+                encoded.add(record);
+            } catch (CompletionException ex) {
+                log.warn("No fue posible encriptar la contraseña de la línea {}", record.line, ex.getCause());
+                consumer.accept(error(record.line, record.user.getEmail(), "No fue posible encriptar la contraseña"));
+            }
+        }
+
+        if (!encoded.isEmpty()) {
+            persistChunk(encoded, consumer);
+        }
+    }
+
+    /**
+     * Inserta el bloque en una sola transacción. Si falla, por ejemplo porque otro proceso
+     * registró uno de los emails, se reintenta cada usuario en su propia transacción
+     * para aislar los registros con error.
+     */
+    private void persistChunk(List<ImportRecord> records, Consumer<UserImportResultDTO> consumer) {
+        try {
+            transactionOperations.executeWithoutResult(status -> {
+                records.forEach(record -> entityManager.persist(toUserEntity(record.user)));
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Falló la inserción del bloque de {} usuarios, se reintenta uno a uno", records.size(), ex);
+            records.forEach(record -> persistOne(record, consumer));
+            return;
+        }
+        records.forEach(record -> consumer.accept(created(record)));
+    }
+
+    private void persistOne(ImportRecord record, Consumer<UserImportResultDTO> consumer) {
+        try {
+            transactionOperations.executeWithoutResult(status -> entityManager.persist(toUserEntity(record.user)));
+            consumer.accept(created(record));
+        } catch (RuntimeException ex) {
+            String email = record.user.getEmail();
+            consumer.accept(error(record.line, email, PersistenceErrors.isDuplicateEmail(ex)
+                    ? new EmailAlreadyExistsException(email).getMessage()
+                    : "No fue posible guardar el usuario"));
+        }
+    }
+
+    /**
+     * Completa los datos del usuario nuevo igual que el alta individual y lo convierte a entidad.
+     * Se usa persist en lugar de save para que el id asignado no provoque un SELECT previo.
+     */
+    private UserEntity toUserEntity(User user) {
+        if (user.getId() == null) {
+            user.setId(UuidGenerator.timeOrdered());
+            user.setCreated(LocalDate.now());
+            user.setLastLogin(user.getCreated());
+            user.setToken(jwtUtil.generateToken(user.getEmail()));
+        }
+
+        UserEntity userEntity = UserMapper.toUserEntity(user);
+        userEntity.setIsActive(true);
+        return userEntity;
+    }
+
+    private UserImportResultDTO created(ImportRecord record) {
+        return UserImportResultDTO.builder()
+                .line(record.line)
+                .email(record.user.getEmail())
+                .status(UserImportResultDTO.CREATED)
+                .id(record.user.getId())
+                .build();
+    }
+
+    private UserImportResultDTO error(long line, String email, String mensaje) {
+        return UserImportResultDTO.builder()
+                .line(line)
+                .email(email)
+                .status(UserImportResultDTO.ERROR)
+                .mensaje(mensaje)
+                .build();
+    }
+
+    /**
+     * Registro válido pendiente de guardar junto con su línea de origen.
+     */
+    private static final class ImportRecord {
+
+        private final long line;
+
+        private final User user;
+
+        private CompletableFuture<String> encodedPassword;
+
+        private ImportRecord(long line, User user) {
+            this.line = line;
+            this.user = user;
+        }
+    }
+}
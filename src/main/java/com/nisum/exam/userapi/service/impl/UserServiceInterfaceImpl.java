@@ -1,35 +1,60 @@
 package com.nisum.exam.userapi.service.impl;
 
 
-import com.nisum.exam.userapi.config.EmailProperties;
-import com.nisum.exam.userapi.config.PasswordProperties;
-import com.nisum.exam.userapi.dto.response.PhoneResponseDTO;
+import com.nisum.exam.userapi.dto.projection.UserRowDTO;
+import com.nisum.exam.userapi.dto.response.UserPageResponseDTO;
 import com.nisum.exam.userapi.dto.response.UserResponseDTO;
 import com.nisum.exam.userapi.entity.PhoneEntity;
 import com.nisum.exam.userapi.entity.UserEntity;
+import com.nisum.exam.userapi.exception.ConcurrentUserModificationException;
 import com.nisum.exam.userapi.exception.EmailAlreadyExistsException;
 import com.nisum.exam.userapi.exception.InvalidEmailException;
 import com.nisum.exam.userapi.exception.InvalidPasswordException;
 import com.nisum.exam.userapi.exception.UserNotFoundException;
+import com.nisum.exam.userapi.exception.UserVersionMismatchException;
 import com.nisum.exam.userapi.mapper.UserMapper;
+import com.nisum.exam.userapi.model.Phone;
 import com.nisum.exam.userapi.model.User;
+import com.nisum.exam.userapi.model.UserSearchFilter;
 import com.nisum.exam.userapi.repository.PhoneRepository;
 import com.nisum.exam.userapi.repository.UserRepository;
+import com.nisum.exam.userapi.service.PasswordHashingService;
+import com.nisum.exam.userapi.service.UserCacheService;
 import com.nisum.exam.userapi.service.UserServiceInterface;
+import com.nisum.exam.userapi.util.CursorUtil;
+import com.nisum.exam.userapi.util.FormatValidator;
 import com.nisum.exam.userapi.util.JwtUtil;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.nisum.exam.userapi.util.PersistenceErrors;
+import com.nisum.exam.userapi.util.UuidGenerator;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.server.ResponseStatusException;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.nisum.exam.userapi.config.MetricsConfig.OPERATION_TAG;
+import static com.nisum.exam.userapi.config.MetricsConfig.USER_OPERATIONS_METRIC;
+import static com.nisum.exam.userapi.util.Constants.MAX_PAGE_SIZE;
+import static org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME;
 
 
 
@@ -44,138 +69,406 @@ public class UserServiceInterfaceImpl implements UserServiceInterface {
 
     private final PhoneRepository phoneRepository;
 
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
     private final JwtUtil jwtUtil;
 
-    private final EmailProperties emailProperties;
+    private final FormatValidator formatValidator;
+
+    private final EntityManager entityManager;
+
+    private final UserCacheService userCacheService;
+
+    private final TransactionOperations transactionOperations;
 
-    private final PasswordProperties passwordProperties;
+    private final Executor persistenceExecutor;
 
-    public UserServiceInterfaceImpl(UserRepository userRepository, PhoneRepository phoneRepository, PasswordEncoder passwordEncoder, JwtUtil jwtUtil, EmailProperties emailProperties, PasswordProperties passwordProperties) {
+    public UserServiceInterfaceImpl(UserRepository userRepository, PhoneRepository phoneRepository, PasswordHashingService passwordHashingService, JwtUtil jwtUtil, FormatValidator formatValidator, EntityManager entityManager, UserCacheService userCacheService, TransactionOperations transactionOperations, @Qualifier(APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor persistenceExecutor) {
         this.userRepository = userRepository;
         this.phoneRepository = phoneRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtUtil = jwtUtil;
-        this.emailProperties = emailProperties;
-        this.passwordProperties = passwordProperties;
+        this.formatValidator = formatValidator;
+        this.entityManager = entityManager;
+        this.userCacheService = userCacheService;
+        this.transactionOperations = transactionOperations;
+        this.persistenceExecutor = persistenceExecutor;
     }
 
+    /**
+     * Se obtiene una página de usuarios ordenados por id, usando paginación por keyset.
+     *
+     * @param cursor token de continuación de la página anterior, o null para la primera página.
+     * @param size   cantidad de usuarios por página.
+     * @return UserPageResponseDTO página de usuarios con el token de la siguiente página.
+     */
     @Override
+    @Timed(value = USER_OPERATIONS_METRIC, extraTags = {OPERATION_TAG, "getUsers"}, description = "Tiempo de obtener una página de usuarios")
+    @Transactional(readOnly = true)
+    public UserPageResponseDTO getUsers(String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        // Se pide un registro adicional para saber si existe una página siguiente
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<UserEntity> userEntityList = cursor == null
+                ? userRepository.findByOrderByIdAsc(pageable)
+                : userRepository.findByIdGreaterThanOrderByIdAsc(CursorUtil.decode(cursor), pageable);
+
+        return toPage(userEntityList, pageSize);
+    }
+
     /**
-     * Se obtiene la lista de todos los usuarios.
+     * Se buscan usuarios con los filtros indicados, ordenados por id y con paginación por keyset.
+     * Cada filtro enviado se agrega a la consulta y se resuelve con su índice.
      *
-     * @return Lista de usuarios.
+     * @param filter filtros de la búsqueda; los que vienen en null se ignoran.
+     * @param cursor token de continuación de la página anterior, o null para la primera página.
+     * @param size   cantidad de usuarios por página.
+     * @return UserPageResponseDTO página de usuarios con el token de la siguiente página.
      */
-    public List<UserResponseDTO> getUsers() {
-        List<UserEntity> userEntityList = userRepository.findAll();
+    @Override
+    @Timed(value = USER_OPERATIONS_METRIC, extraTags = {OPERATION_TAG, "searchUsers"}, description = "Tiempo de buscar usuarios con filtros")
+    @Transactional(readOnly = true)
+    public UserPageResponseDTO searchUsers(UserSearchFilter filter, String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        // Se pide un registro adicional para saber si existe una página siguiente
+        List<UserEntity> userEntityList = userRepository.search(filter,
+                cursor == null ? null : CursorUtil.decode(cursor), pageSize + 1);
 
-        return userEntityList.stream()
-                .map(UserMapper::toUserModel)
-                .map(this::setResponse)
-                .collect(Collectors.toList());
+        return toPage(userEntityList, pageSize);
+    }
+
+    /**
+     * Se obtiene un usuario por su id con sus telefonos, en una sola consulta que no lee la contraseña.
+     *
+     * @param id id del usuario.
+     * @return UserResponseDTO usuario encontrado, sin la contraseña.
+     * @throws UserNotFoundException si no existe un usuario con ese id
+     */
+    @Override
+    @Timed(value = USER_OPERATIONS_METRIC, extraTags = {OPERATION_TAG, "getUser"}, description = "Tiempo de obtener un usuario por id")
+    @Transactional(readOnly = true)
+    public UserResponseDTO getUser(UUID id) {
+        List<UserRowDTO> rows = userRepository.findRowsById(id);
+        if (rows.isEmpty()) {
+            throw new UserNotFoundException(id);
+        }
+        return UserMapper.toUserResponseDTO(rows);
     }
 
+    /**
+     * Se obtiene un usuario por su email con sus telefonos, en una sola consulta que no lee la contraseña.
+     *
+     * @param email correo electrónico del usuario, se normaliza antes de buscarlo.
+     * @return UserResponseDTO usuario encontrado, sin la contraseña.
+     * @throws UserNotFoundException si no existe un usuario con ese email
+     */
     @Override
+    @Timed(value = USER_OPERATIONS_METRIC, extraTags = {OPERATION_TAG, "getUserByEmail"}, description = "Tiempo de obtener un usuario por email")
+    @Transactional(readOnly = true)
+    public UserResponseDTO getUserByEmail(String email) {
+        String normalizedEmail = FormatValidator.normalizeEmail(email);
+        List<UserRowDTO> rows = userRepository.findRowsByEmail(normalizedEmail);
+        if (rows.isEmpty()) {
+            throw new UserNotFoundException(normalizedEmail);
+        }
+        return UserMapper.toUserResponseDTO(rows);
+    }
 
     /**
-     * Guarda un nuevo usuario con una lista de telefonos.
+     * Recorre todos los usuarios sobre un cursor JDBC entregándolos uno a uno al consumidor,
+     * liberando cada entidad del contexto de persistencia para mantener la memoria constante.
+     *
+     * @param consumer receptor de cada usuario leído.
+     */
+    @Override
+    @Timed(value = USER_OPERATIONS_METRIC, extraTags = {OPERATION_TAG, "streamUsers"}, description = "Tiempo de transmitir todos los usuarios")
+    @Transactional(readOnly = true)
+    public void streamUsers(Consumer<UserResponseDTO> consumer) {
+        try (Stream<UserEntity> userEntities = userRepository.streamAllOrderById()) {
+            userEntities.forEach(userEntity -> {
+                consumer.accept(UserMapper.toUserResponseDTO(userEntity));
+                entityManager.detach(userEntity);
+            });
+        }
+    }
+
+    /**
+     * Guarda un nuevo usuario con una lista de telefonos. La contraseña se encripta en el pool
+     * de encriptación, sin ocupar el hilo de la petición, y el usuario se guarda al terminar.
      *
      * @param user Usuario a guardar.
-     * @return UserResponseDTO DTO de respuesta con información del usuario guardado.
+     * @return CompletableFuture<UserResponseDTO> que se completa con la información del usuario guardado.
      */
-    public UserResponseDTO saveUser(User user) {
+    @Override
+    // La transacción se abre en el hilo de persistencia; el hilo de la petición no ocupa una conexión
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Timed(value = USER_OPERATIONS_METRIC, extraTags = {OPERATION_TAG, "saveUser"}, description = "Tiempo de crear un usuario, incluida la encriptación")
+    public CompletableFuture<UserResponseDTO> saveUser(User user) {
         //Se valida que el email y contraseña cumplan con los formatos establecidos
+        user.setEmail(FormatValidator.normalizeEmail(user.getEmail()));
         validateFormatEmail(user.getEmail());
         validatePassword(user.getPassword());
 
-        // Guarda en User los campos que faltan por guardan
-        user.setId(UUID.randomUUID().toString());
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        user.setCreated(LocalDate.now());
-        user.setLastLogin(user.getLastLogin() != null ? user.getLastLogin() : user.getCreated());
-        user.setToken(jwtUtil.generateToken(user.getEmail()));
-        user.setIsActive(true);
+        return passwordHashingService.encode(user.getPassword())
+                .thenApplyAsync(encodedPassword -> insertUser(user, encodedPassword), persistenceExecutor);
+    }
 
-        //Convertir el User(Modelo de usuario) a UserEntity para guardarlo en base de datos
-        UserEntity userEntity = UserMapper.toUserEntity(user);
-        userEntity.setPhones(user.getPhones().stream().map(phone -> {
-                    PhoneEntity phoneEntity = UserMapper.toPhoneEntity(phone);
-                    phoneEntity.setUser(userEntity);
-                    return phoneEntity;
-                }
-        ).collect(Collectors.toList()));
+    /**
+     * Actualiza los datos de un usuario existente. La contraseña se encripta en el pool
+     * de encriptación, sin ocupar el hilo de la petición, y el usuario se guarda al terminar.
+     * Si el usuario trae versión (If-Match) solo se actualiza cuando coincide con la guardada.
+     *
+     * @param user Usuario a actualizar.
+     * @return CompletableFuture<UserResponseDTO> que se completa con la información del usuario actualizado.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Timed(value = USER_OPERATIONS_METRIC, extraTags = {OPERATION_TAG, "updateUser"}, description = "Tiempo de actualizar un usuario, incluida la encriptación")
+    public CompletableFuture<UserResponseDTO> updateUser(User user) {
 
-        //Llama el metodo para guardar el UserEntity y devolver un userEntity
-        UserEntity createdUser = userRepository.save(userEntity);
+        //Se busca el usuario por email a ver si existe
+        user.setEmail(FormatValidator.normalizeEmail(user.getEmail()));
+        Optional<User> searchUser = userCacheService.findByEmail(user.getEmail());
 
-        //Convertir el UserEntity en User(Modelo de usuario)
-        User createdUserResponse = UserMapper.toUserModel(createdUser);
+        if (searchUser.isEmpty()) {
+            throw new UserNotFoundException(user.getEmail());
+        }
 
-        //Retorna una respuesta de User luego de invocar el metodo SetResponse
-        return setResponse(createdUserResponse);
+        // Solo se encripta si la contraseña cambió o su hash usa parámetros anteriores. La copia en cache
+        // solo entrega el id y el hash; la versión se compara con la entidad leída dentro de la transacción
+        UUID id = searchUser.get().getId();
+        return passwordHashingService.encodeIfChanged(user.getPassword(), searchUser.get().getPassword())
+                .thenApplyAsync(encodedPassword -> executeUpdate(user.getEmail(), user.getVersion(),
+                        status -> modifyUser(id, user, encodedPassword)), persistenceExecutor);
     }
 
+    /**
+     * Modifica solo los campos enviados de un usuario existente. La entidad se carga una sola vez
+     * dentro de la transacción y se modifica directamente, sin reemplazarla con save(); la contraseña
+     * solo se encripta si viene en la solicitud.
+     *
+     * @param id      id del usuario a modificar.
+     * @param changes campos a modificar; los que vienen en null se mantienen. Si trae versión
+     *                (If-Match) solo se modifica cuando coincide con la guardada.
+     * @return CompletableFuture<UserResponseDTO> que se completa con la información del usuario modificado.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Timed(value = USER_OPERATIONS_METRIC, extraTags = {OPERATION_TAG, "patchUser"}, description = "Tiempo de modificar parcialmente un usuario")
+    public CompletableFuture<UserResponseDTO> patchUser(UUID id, User changes) {
+        if (changes.getEmail() != null) {
+            changes.setEmail(FormatValidator.normalizeEmail(changes.getEmail()));
+            validateFormatEmail(changes.getEmail());
+        }
+        if (changes.getPassword() != null) {
+            validatePassword(changes.getPassword());
+        }
+
+        CompletableFuture<String> encodedPassword = changes.getPassword() != null
+                ? passwordHashingService.encode(changes.getPassword())
+                : CompletableFuture.completedFuture(null);
+
+        return encodedPassword.thenApplyAsync(password -> executeUpdate(changes.getEmail(), changes.getVersion(),
+                status -> applyChanges(id, changes, password)), persistenceExecutor);
+    }
+
     /**
-     * Actualiza los datos de un usuario existente.
+     * Guarda el usuario nuevo en su propia transacción. Si el email ya está registrado,
+     * incluso por otra solicitud simultánea, el índice único rechaza el INSERT.
      *
-     * @param user Usuario a actualizar.
-     * @return UserResponseDTO DTO de respuesta con información del usuario actualizado.
+     * @param user            Usuario a guardar.
+     * @param encodedPassword contraseña ya encriptada.
+     * @return UserResponseDTO DTO de respuesta con información del usuario guardado.
+     * @throws EmailAlreadyExistsException si el email ya está registrado
      */
-    public UserResponseDTO updateUser(User user) {
+    private UserResponseDTO insertUser(User user, String encodedPassword) {
+        try {
+            return transactionOperations.execute(status -> createUser(user, encodedPassword));
+        } catch (RuntimeException ex) {
+            if (PersistenceErrors.isDuplicateEmail(ex)) {
+                throw new EmailAlreadyExistsException(user.getEmail());
+            }
+            throw ex;
+        }
+    }
 
-        //Se busca el usuario por email a ver si existe
-        Optional<UserEntity> searchUser = userRepository.findByEmail(user.getEmail());
+    /**
+     * Ejecuta una modificación en su propia transacción y traduce los conflictos de la base de datos.
+     *
+     * @param email           email del usuario modificado, para el mensaje de email duplicado.
+     * @param expectedVersion versión enviada en If-Match, o null.
+     * @param update          modificación a ejecutar.
+     * @return UserResponseDTO DTO de respuesta con información del usuario modificado.
+     * @throws UserVersionMismatchException        si la versión no coincide con la de If-Match
+     * @throws ConcurrentUserModificationException si otra solicitud lo modificó al mismo tiempo
+     * @throws EmailAlreadyExistsException         si el nuevo email ya está registrado
+     */
+    private UserResponseDTO executeUpdate(String email, Long expectedVersion, TransactionCallback<UserResponseDTO> update) {
+        try {
+            return transactionOperations.execute(update);
+        } catch (RuntimeException ex) {
+            if (PersistenceErrors.isOptimisticLockFailure(ex)) {
+                // La copia en cache puede tener la versión anterior; se descarta para que el reintento la lea
+                if (email != null) {
+                    userCacheService.evict(email);
+                }
+                throw expectedVersion != null ? new UserVersionMismatchException() : new ConcurrentUserModificationException();
+            }
+            if (PersistenceErrors.isDuplicateEmail(ex)) {
+                throw new EmailAlreadyExistsException(email);
+            }
+            throw ex;
+        }
+    }
 
-        if (searchUser.isEmpty()) {
+    /**
+     * Completa los datos del usuario nuevo y lo guarda junto con sus telefonos.
+     *
+     * @param user            Usuario a guardar.
+     * @param encodedPassword contraseña ya encriptada.
+     * @return UserResponseDTO DTO de respuesta con información del usuario guardado.
+     */
+    private UserResponseDTO createUser(User user, String encodedPassword) {
+        // Se convierte a entidad una sola vez y se completan en ella los campos que faltan por guardar
+        UserEntity userEntity = UserMapper.toUserEntity(user);
+        userEntity.setId(UuidGenerator.timeOrdered());
+        userEntity.setPassword(encodedPassword);
+        userEntity.setCreated(LocalDate.now());
+        userEntity.setLastLogin(user.getLastLogin() != null ? user.getLastLogin() : userEntity.getCreated());
+        userEntity.setToken(jwtUtil.generateToken(user.getEmail()));
+        userEntity.setIsActive(true);
+
+        //Inserta el UserEntity; persist evita el SELECT previo que hace save con un id asignado
+        //y flush hace que una violación del índice único de email se detecte aquí
+        entityManager.persist(userEntity);
+        entityManager.flush();
+        userCacheService.evict(userEntity.getEmail());
+
+        //La respuesta se arma directamente desde la entidad guardada
+        return UserMapper.toUserResponseDTO(userEntity);
+    }
+
+    /**
+     * Reemplaza los datos del usuario existente sobre la entidad administrada, igual que applyChanges:
+     * la versión se compara con la leída en esta transacción y los telefonos se actualizan con mergePhones,
+     * sin eliminar y volver a insertar los que no cambian.
+     *
+     * @param id              id del usuario guardado previamente.
+     * @param user            Usuario con los nuevos datos.
+     * @param encodedPassword contraseña ya encriptada.
+     * @return UserResponseDTO DTO de respuesta con información del usuario actualizado.
+     * @throws UserNotFoundException        si el usuario ya no existe o cambió de email
+     * @throws UserVersionMismatchException si la versión no coincide con la de If-Match
+     */
+    private UserResponseDTO modifyUser(UUID id, User user, String encodedPassword) {
+        UserEntity userEntity = entityManager.find(UserEntity.class, id);
+        if (userEntity == null || !userEntity.getEmail().equals(user.getEmail())) {
+            // La copia en cache apuntaba a un usuario eliminado o que cambió de email
+            userCacheService.evict(user.getEmail());
             throw new UserNotFoundException(user.getEmail());
         }
+        if (user.getVersion() != null && !user.getVersion().equals(userEntity.getVersion())) {
+            throw new UserVersionMismatchException();
+        }
 
-        // Actualiza los datos del usuario
-        user.setId(searchUser.get().getId());
-        user.setName(user.getName());
-        user.setEmail(user.getEmail());
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        user.setPhones(user.getPhones());
-        user.setCreated(searchUser.get().getCreated());
-        user.setModified(LocalDate.now());
-        user.setLastLogin(searchUser.get().getLastLogin());
-        user.setToken(searchUser.get().getToken());
+        // Se conservan id, fecha de creación, último login y token del usuario guardado
+        userEntity.setName(user.getName());
+        userEntity.setPassword(encodedPassword);
+        userEntity.setIsActive(user.getIsActive() == null ? Boolean.TRUE : user.getIsActive());
+        mergePhones(userEntity, user.getPhones() != null ? user.getPhones() : List.of());
+        userEntity.setModified(LocalDate.now());
 
-        UserEntity userEntity = UserMapper.toUserEntity(user);
-        userEntity.setPhones(user.getPhones().stream().map(p -> {
-            PhoneEntity phoneEntity = UserMapper.toPhoneEntity(p);
-            phoneEntity.setUser(userEntity);
-            return phoneEntity;
-        }).collect(Collectors.toList()));
+        // flush incrementa la versión; si otra solicitud la cambió desde la lectura, falla aquí
+        entityManager.flush();
+        userCacheService.evict(userEntity.getEmail());
+
+        // Arma y devuelve la respuesta directamente desde la entidad guardada
+        return UserMapper.toUserResponseDTO(userEntity);
+    }
 
-        // Guarda el usuario en la base de datos
-        UserEntity modifiedUser = userRepository.save(userEntity);
+    /**
+     * Aplica los cambios sobre la entidad administrada; al confirmar la transacción Hibernate
+     * actualiza solo las columnas modificadas.
+     *
+     * @param id              id del usuario a modificar.
+     * @param changes         campos a modificar.
+     * @param encodedPassword nueva contraseña ya encriptada, o null si no cambia.
+     * @return UserResponseDTO DTO de respuesta con información del usuario modificado.
+     */
+    private UserResponseDTO applyChanges(UUID id, User changes, String encodedPassword) {
+        UserEntity userEntity = entityManager.find(UserEntity.class, id);
+        if (userEntity == null) {
+            throw new UserNotFoundException(id);
+        }
+        if (changes.getVersion() != null && !changes.getVersion().equals(userEntity.getVersion())) {
+            throw new UserVersionMismatchException();
+        }
+        String previousEmail = userEntity.getEmail();
 
-        // Convierte el UserEntity a un User para poder retornarlo en el response
-        User updatedUser = UserMapper.toUserModel(modifiedUser);
+        if (changes.getName() != null) {
+            userEntity.setName(changes.getName());
+        }
+        if (changes.getEmail() != null) {
+            userEntity.setEmail(changes.getEmail());
+        }
+        if (encodedPassword != null) {
+            userEntity.setPassword(encodedPassword);
+        }
+        if (changes.getIsActive() != null) {
+            userEntity.setIsActive(changes.getIsActive());
+        }
+        if (changes.getPhones() != null) {
+            mergePhones(userEntity, changes.getPhones());
+        }
+        userEntity.setModified(LocalDate.now());
 
-        // Arma y devuelve la respuesta
-        return setResponse(updatedUser);
+        // flush hace que una violación del índice único de email se detecte aquí
+        entityManager.flush();
+        userCacheService.evict(previousEmail);
+        if (!previousEmail.equals(userEntity.getEmail())) {
+            userCacheService.evict(userEntity.getEmail());
+        }
 
+        return UserMapper.toUserResponseDTO(userEntity);
+    }
 
+    /**
+     * Deja en el usuario exactamente los telefonos recibidos: conserva los que ya existen,
+     * elimina los que no vienen (orphanRemoval) y agrega solo los nuevos.
+     *
+     * @param userEntity usuario administrado.
+     * @param phones     lista final de telefonos.
+     */
+    private void mergePhones(UserEntity userEntity, List<Phone> phones) {
+        Set<Phone> requested = phones.stream()
+                .map(UserServiceInterfaceImpl::phoneKey)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        userEntity.getPhones().removeIf(phoneEntity -> !requested.remove(phoneKey(phoneEntity)));
+
+        requested.forEach(phone -> userEntity.getPhones().add(UserMapper.toPhoneEntity(phone, userEntity)));
+    }
+
+    private static Phone phoneKey(Phone phone) {
+        return new Phone(phone.getNumber(), phone.getCitycode(), phone.getCountrycode(), null);
+    }
+
+    private static Phone phoneKey(PhoneEntity phoneEntity) {
+        return new Phone(phoneEntity.getNumber(), phoneEntity.getCityCode(), phoneEntity.getCountryCode(), null);
     }
 
     /**
-     * Valida que el email tenga el formato correcto y no esté registrado previamente.
+     * Valida que el email tenga el formato correcto. Que no esté registrado lo garantiza
+     * el índice único al guardar.
      *
      * @param email correo electrónico a validar
-     * @throws ResponseStatusException si el email tiene un formato incorrecto o ya está registrado
+     * @throws ResponseStatusException si el email tiene un formato incorrecto
      */
     private void validateFormatEmail(String email) {
-        Pattern pattern = Pattern.compile(emailProperties.getRegex());
-        Matcher matcher = pattern.matcher(email);
-        if (!matcher.matches()) {
+        if (!formatValidator.isValidEmail(email)) {
             throw new InvalidEmailException();
-                    }
-        if (userRepository.findByEmail(email).isPresent()) {
-            throw new EmailAlreadyExistsException(email);
         }
     }
 
@@ -186,43 +479,23 @@ public class UserServiceInterfaceImpl implements UserServiceInterface {
      * @throws ResponseStatusException si la contraseña tiene un formato incorrecto
      */
     private void validatePassword(String password) {
-        Pattern pattern = Pattern.compile(passwordProperties.getRegex());
-        Matcher matcher = pattern.matcher(password);
-        if (!matcher.matches()) {
+        if (!formatValidator.isValidPassword(password)) {
             throw new InvalidPasswordException();
         }
     }
 
-    /**
-     * Crea una respuesta de usuario a partir del modelo de usuario.
-     *
-     * @param user modelo de usuario
-     * @return UserResponseDTO DTO de respuesta de usuario
-     */
-    private UserResponseDTO setResponse(User user) {
-        List<PhoneResponseDTO> phones = new ArrayList<>();
-        if (user.getPhones() != null) {
-            user.getPhones().forEach(p -> {
-                phones.add(PhoneResponseDTO.builder()
-                        .number(p.getNumber())
-                        .citycode(p.getCitycode())
-                        .countrycode(p.getCountrycode())
-                        .build());
-            });
+    private static UserPageResponseDTO toPage(List<UserEntity> userEntityList, int pageSize) {
+        boolean hasNext = userEntityList.size() > pageSize;
+        List<UserEntity> page = hasNext ? userEntityList.subList(0, pageSize) : userEntityList;
+
+        List<UserResponseDTO> users = new ArrayList<>(page.size());
+        for (UserEntity userEntity : page) {
+            users.add(UserMapper.toUserResponseDTO(userEntity));
         }
 
-        return UserResponseDTO.builder()
-                .id(UUID.fromString(user.getId()))
-                .name(user.getName())
-                .email(user.getEmail())
-                .password(user.getPassword())
-                .phones(phones)
-                .created(user.getCreated())
-                .modified(user.getModified())
-                .lastLogin(user.getLastLogin() != null ? user.getLastLogin() : user.getCreated())
-                .token(user.getToken())
-                .isActive(user.getIsActive() != null && user.getIsActive())
+        return UserPageResponseDTO.builder()
+                .users(users)
+                .nextCursor(hasNext ? CursorUtil.encode(page.get(page.size() - 1).getId()) : null)
                 .build();
     }
-
 }
@@ -11,4 +11,35 @@ public class Constants {
 
     public static final long EXPIRATION_TIME = 10 * 60 * 60 * 1000; // 10 horas
 
+    // Tamaño de página por defecto y máximo para el listado paginado de usuarios
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Cantidad de usuarios cuyos teléfonos se cargan en una sola consulta IN (...)
+    public static final int PHONE_BATCH_SIZE = 100;
+
+    // Filas que el driver JDBC trae por viaje al recorrer el cursor en modo streaming
+    public static final String STREAM_FETCH_SIZE = "500";
+
+    // Header con el token de continuación de la siguiente página
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Índice único sobre users.email, que se guarda normalizado en minúsculas
+    public static final String USERS_EMAIL_UNIQUE_INDEX = "ux_users_email";
+
+    // Registros de la importación masiva que se validan, encriptan y guardan juntos en una transacción
+    public static final int IMPORT_CHUNK_SIZE = 500;
+
+    // Bytes que se acumulan antes de escribir la exportación de usuarios en la respuesta
+    public static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    // Ids de teléfonos reservados por cada consulta a la secuencia phone_seq
+    public static final int PHONE_ID_ALLOCATION_SIZE = 50;
+
+    // Regiones de la cache de segundo nivel de Hibernate: entidades, colección de teléfonos y consultas de usuarios
+    public static final String USER_ENTITY_CACHE_REGION = "user-entity";
+    public static final String PHONE_ENTITY_CACHE_REGION = "phone-entity";
+    public static final String USER_PHONES_CACHE_REGION = "user-phones";
+    public static final String USER_QUERIES_CACHE_REGION = "user-queries";
+
 }
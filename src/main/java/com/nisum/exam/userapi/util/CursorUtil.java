@@ -0,0 +1,53 @@
+package com.nisum.exam.userapi.util;
+
+import com.nisum.exam.userapi.exception.InvalidCursorException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Utilidad para codificar y decodificar el token opaco de continuación
+ * usado en la paginación por keyset sobre users.id.
+ */
+public final class CursorUtil {
+
+    private static final int UUID_BYTES = 16;
+
+    private CursorUtil() {
+    }
+
+    /**
+     * Codifica el id del último usuario de la página como token opaco.
+     *
+     * @param lastId id del último usuario entregado
+     * @return token de continuación en Base64 URL-safe con los 16 bytes del id
+     */
+    public static String encode(UUID lastId) {
+        ByteBuffer buffer = ByteBuffer.allocate(UUID_BYTES)
+                .putLong(lastId.getMostSignificantBits())
+                .putLong(lastId.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodifica un token de continuación al id desde el cual continuar.
+     *
+     * @param cursor token de continuación recibido del cliente
+     * @return id del último usuario entregado en la página anterior
+     * @throws InvalidCursorException si el token no es válido
+     */
+    public static UUID decode(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException();
+        }
+        if (bytes.length != UUID_BYTES) {
+            throw new InvalidCursorException();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
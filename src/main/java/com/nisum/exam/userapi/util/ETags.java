@@ -0,0 +1,67 @@
+package com.nisum.exam.userapi.util;
+
+import com.nisum.exam.userapi.dto.response.UserResponseDTO;
+import com.nisum.exam.userapi.exception.UserVersionMismatchException;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Utilidad para armar y leer los ETag de los usuarios a partir de su versión.
+ */
+public final class ETags {
+
+    private static final String ANY = "*";
+
+    private ETags() {
+    }
+
+    /**
+     * ETag fuerte de un usuario, que cambia cada vez que se modifica.
+     *
+     * @param version versión del usuario
+     * @return ETag con la versión entre comillas
+     */
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * ETag débil de una página de usuarios, calculado con el id y la versión de cada usuario
+     * y el token de la siguiente página, sin serializar la respuesta.
+     *
+     * @param users      usuarios de la página
+     * @param nextCursor token de la siguiente página, o null
+     * @return ETag débil de la página
+     */
+    public static String ofPage(List<UserResponseDTO> users, String nextCursor) {
+        StringBuilder content = new StringBuilder();
+        users.forEach(user -> content.append(user.getId()).append(':').append(user.getVersion()).append(';'));
+        content.append(nextCursor);
+        return "W/\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.US_ASCII)) + "\"";
+    }
+
+    /**
+     * Obtiene la versión esperada desde el header If-Match.
+     *
+     * @param ifMatch valor del header, puede ser null
+     * @return versión esperada, o null si no se envió el header o es "*"
+     * @throws UserVersionMismatchException si el ETag no corresponde a una versión
+     */
+    public static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        // If-Match usa comparación fuerte, un ETag débil nunca coincide
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new UserVersionMismatchException();
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException ex) {
+            throw new UserVersionMismatchException();
+        }
+    }
+}
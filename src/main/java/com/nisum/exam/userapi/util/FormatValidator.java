@@ -0,0 +1,210 @@
+package com.nisum.exam.userapi.util;
+
+import com.nisum.exam.userapi.config.EmailProperties;
+import com.nisum.exam.userapi.config.PasswordProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static com.nisum.exam.userapi.util.Constants.EMAIL_REGEX;
+import static com.nisum.exam.userapi.util.Constants.PWD_REGEX;
+
+/**
+ * Componente encargado de validar el formato del email y la contraseña.
+ * Las expresiones regulares de EmailProperties y PasswordProperties se compilan una sola vez
+ * y solo se vuelven a compilar si el valor de la propiedad cambia. Cuando la propiedad tiene
+ * la expresión por defecto de Constants se usa un validador escrito a mano que no reserva memoria.
+ */
+@Component
+public class FormatValidator {
+
+    private final EmailProperties emailProperties;
+
+    private final PasswordProperties passwordProperties;
+
+    private volatile CompiledRegex emailRegex;
+
+    private volatile CompiledRegex passwordRegex;
+
+    public FormatValidator(EmailProperties emailProperties, PasswordProperties passwordProperties) {
+        this.emailProperties = emailProperties;
+        this.passwordProperties = passwordProperties;
+    }
+
+    /**
+     * Compila las expresiones al iniciar la aplicación.
+     */
+    @PostConstruct
+    public void compile() {
+        emailRegex = CompiledRegex.of(emailProperties.getRegex(), EMAIL_REGEX, FormatValidator::isDefaultEmail);
+        passwordRegex = CompiledRegex.of(passwordProperties.getRegex(), PWD_REGEX, FormatValidator::isDefaultPassword);
+    }
+
+    /**
+     * Valida que el email cumpla con la expresión configurada en email.regex.
+     *
+     * @param email correo electrónico a validar
+     * @return true si el email tiene un formato válido
+     */
+    public boolean isValidEmail(String email) {
+        String regex = emailProperties.getRegex();
+        CompiledRegex current = emailRegex;
+        if (current == null || !current.isCompiledFrom(regex)) {
+            current = CompiledRegex.of(regex, EMAIL_REGEX, FormatValidator::isDefaultEmail);
+            emailRegex = current;
+        }
+        return current.matches(email);
+    }
+
+    /**
+     * Valida que la contraseña cumpla con la expresión configurada en password.regex.
+     *
+     * @param password contraseña a validar
+     * @return true si la contraseña tiene un formato válido
+     */
+    public boolean isValidPassword(String password) {
+        String regex = passwordProperties.getRegex();
+        CompiledRegex current = passwordRegex;
+        if (current == null || !current.isCompiledFrom(regex)) {
+            current = CompiledRegex.of(regex, PWD_REGEX, FormatValidator::isDefaultPassword);
+            passwordRegex = current;
+        }
+        return current.matches(password);
+    }
+
+    /**
+     * Normaliza el email para guardarlo y buscarlo: sin espacios alrededor y en minúsculas,
+     * de modo que el índice único no admita el mismo correo con distinto uso de mayúsculas.
+     *
+     * @param email correo electrónico recibido
+     * @return el email normalizado, o null si no se recibió
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Equivalente sin expresiones regulares de Constants.EMAIL_REGEX:
+     * {@code ^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\.[a-zA-Z]{2,}$}
+     *
+     * @param email correo electrónico a validar
+     * @return true si el email cumple la expresión por defecto
+     */
+    public static boolean isDefaultEmail(CharSequence email) {
+        int length = email.length();
+        int at = -1;
+        for (int i = 0; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                at = i;
+                break;
+            }
+            if (!isAsciiLetterOrDigit(c) && c != '.' && c != '_' && c != '%' && c != '+' && c != '-') {
+                return false;
+            }
+        }
+        if (at < 1) {
+            return false;
+        }
+
+        // El dominio debe terminar en un punto seguido de al menos dos letras,
+        // con al menos un caracter entre la arroba y ese punto
+        int lastDot = -1;
+        for (int i = at + 1; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                lastDot = i;
+            } else if (!isAsciiLetterOrDigit(c) && c != '-') {
+                return false;
+            }
+        }
+        if (lastDot < at + 2 || length - lastDot - 1 < 2) {
+            return false;
+        }
+        for (int i = lastDot + 1; i < length; i++) {
+            if (!isAsciiLetter(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Equivalente sin expresiones regulares de Constants.PWD_REGEX:
+     * {@code ^(?=.*\d)(?=.*[a-z])(?=.*[A-Z]).{8,16}$}
+     *
+     * @param password contraseña a validar
+     * @return true si la contraseña cumple la expresión por defecto
+     */
+    public static boolean isDefaultPassword(CharSequence password) {
+        int length = password.length();
+        int codePoints = 0;
+        boolean digit = false;
+        boolean lower = false;
+        boolean upper = false;
+        for (int i = 0; i < length; i++) {
+            char c = password.charAt(i);
+            if (isLineTerminator(c)) {
+                return false;
+            }
+            // Un par sustituto cuenta como un solo caracter para '.'
+            if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(password.charAt(i + 1))) {
+                i++;
+            }
+            codePoints++;
+            digit |= c >= '0' && c <= '9';
+            lower |= c >= 'a' && c <= 'z';
+            upper |= c >= 'A' && c <= 'Z';
+        }
+        return digit && lower && upper && codePoints >= 8 && codePoints <= 16;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * Expresión compilada junto con el texto desde el que se compiló.
+     */
+    private static final class CompiledRegex {
+
+        private final String source;
+
+        private final Predicate<CharSequence> matcher;
+
+        private CompiledRegex(String source, Predicate<CharSequence> matcher) {
+            this.source = source;
+            this.matcher = matcher;
+        }
+
+        static CompiledRegex of(String regex, String defaultRegex, Predicate<CharSequence> fastPath) {
+            if (regex == null) {
+                return null;
+            }
+            if (defaultRegex.equals(regex)) {
+                return new CompiledRegex(regex, fastPath);
+            }
+            Pattern pattern = Pattern.compile(regex);
+            return new CompiledRegex(regex, value -> pattern.matcher(value).matches());
+        }
+
+        boolean isCompiledFrom(String regex) {
+            return source == regex || source.equals(regex);
+        }
+
+        boolean matches(CharSequence value) {
+            return matcher.test(value);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.nisum.exam.userapi.util;
+
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import org.hibernate.StaleStateException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import javax.persistence.OptimisticLockException;
+
+import java.util.Locale;
+
+import static com.nisum.exam.userapi.util.Constants.USERS_EMAIL_UNIQUE_INDEX;
+
+/**
+ * Utilidades para interpretar los errores devueltos por la base de datos al guardar.
+ */
+public final class PersistenceErrors {
+
+    private PersistenceErrors() {
+    }
+
+    /**
+     * Indica si el error, o alguna de sus causas, es una violación del índice único de email de usuarios,
+     * tanto desde Hibernate como desde R2DBC.
+     *
+     * @param error excepción lanzada al guardar
+     * @return true si el email ya estaba registrado
+     */
+    public static boolean isDuplicateEmail(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                String constraintName = ((ConstraintViolationException) cause).getConstraintName();
+                return constraintName != null
+                        && constraintName.toLowerCase(Locale.ROOT).contains(USERS_EMAIL_UNIQUE_INDEX);
+            }
+            if (cause instanceof R2dbcDataIntegrityViolationException) {
+                // R2DBC no informa el nombre del índice por separado, viene en el mensaje del driver
+                String message = cause.getMessage();
+                return message != null && message.toLowerCase(Locale.ROOT).contains(USERS_EMAIL_UNIQUE_INDEX);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indica si el error, o alguna de sus causas, se debe a que la versión del usuario cambió
+     * entre la lectura y la escritura (bloqueo optimista).
+     *
+     * @param error excepción lanzada al guardar
+     * @return true si otra solicitud modificó el usuario antes
+     */
+    public static boolean isOptimisticLockFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockException
+                    || cause instanceof StaleStateException
+                    || cause instanceof OptimisticLockingFailureException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
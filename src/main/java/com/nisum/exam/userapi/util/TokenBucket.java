@@ -0,0 +1,48 @@
+package com.nisum.exam.userapi.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sin bloqueos, implementado como GCRA (generic cell rate algorithm): en lugar de contar fichas
+ * se guarda en un solo AtomicLong el instante teórico en que el balde vuelve a estar lleno, y cada solicitud
+ * lo adelanta un intervalo con compareAndSet. Permite ráfagas de hasta capacity solicitudes y luego
+ * refillPerSecond solicitudes por segundo.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+
+    private final long burstNanos;
+
+    private final AtomicLong fullAt;
+
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity debe ser al menos 1 y refillPerSecond mayor que 0");
+        }
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000d / refillPerSecond));
+        this.burstNanos = intervalNanos * capacity;
+        // El balde empieza lleno
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Intenta consumir una ficha.
+     *
+     * @param nowNanos instante actual según System.nanoTime()
+     * @return 0 si se consumió la ficha, o los nanosegundos que faltan para que haya una disponible.
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long allowedFrom = next - burstNanos;
+            if (allowedFrom > nowNanos) {
+                return allowedFrom - nowNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
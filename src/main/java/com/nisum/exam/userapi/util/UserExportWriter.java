@@ -0,0 +1,102 @@
+package com.nisum.exam.userapi.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.nisum.exam.userapi.dto.response.PhoneResponseDTO;
+import com.nisum.exam.userapi.dto.response.UserResponseDTO;
+import com.nisum.exam.userapi.model.ImportFormat;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.function.Consumer;
+
+/**
+ * Componente encargado de escribir cada usuario exportado como una línea.
+ * En NDJSON cada línea es el mismo JSON que devuelve el GET de usuarios.
+ * En CSV la primera línea es el encabezado y phones es una lista separada por ';' de teléfonos
+ * con formato number:citycode:countrycode, igual que en la importación.
+ */
+@Component
+public class UserExportWriter {
+
+    static final String CSV_HEADER = "id,name,email,created,modified,last_login,token,is_active,version,phones";
+
+    private final ObjectWriter jsonWriter;
+
+    public UserExportWriter(ObjectMapper objectMapper) {
+        // Ni cerrar ni vaciar el Writer por cada usuario: el buffer y la compresión se manejan afuera
+        this.jsonWriter = objectMapper.writerFor(UserResponseDTO.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Crea el receptor que escribe los usuarios en el formato indicado. En CSV escribe de inmediato el encabezado.
+     *
+     * @param format formato de la exportación
+     * @param writer destino de las líneas
+     * @return receptor de cada usuario exportado.
+     */
+    public Consumer<UserResponseDTO> writer(ImportFormat format, Writer writer) {
+        if (format == ImportFormat.CSV) {
+            write(writer, CSV_HEADER);
+            return user -> write(writer, csvLine(user));
+        }
+        return user -> {
+            try {
+                jsonWriter.writeValue(writer, user);
+                writer.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        };
+    }
+
+    static String csvLine(UserResponseDTO user) {
+        StringBuilder phones = new StringBuilder();
+        for (PhoneResponseDTO phone : user.getPhones()) {
+            if (phones.length() > 0) {
+                phones.append(';');
+            }
+            phones.append(phone.getNumber()).append(':').append(phone.getCitycode()).append(':').append(phone.getCountrycode());
+        }
+        return String.join(",",
+                String.valueOf(user.getId()),
+                csvValue(user.getName()),
+                csvValue(user.getEmail()),
+                csvValue(user.getCreated()),
+                csvValue(user.getModified()),
+                csvValue(user.getLastLogin()),
+                csvValue(user.getToken()),
+                String.valueOf(user.getIsActive()),
+                csvValue(user.getVersion()),
+                csvValue(phones));
+    }
+
+    /**
+     * Escribe un valor CSV, entre comillas dobles si tiene comas, comillas o saltos de línea.
+     */
+    private static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private static void write(Writer writer, String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.nisum.exam.userapi.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.nisum.exam.userapi.dto.request.UserRequestDTO;
+import com.nisum.exam.userapi.model.Phone;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Componente encargado de convertir cada línea de un archivo de importación en un UserRequestDTO.
+ * En NDJSON cada línea es un objeto con el mismo formato que el POST de usuarios.
+ * En CSV la primera línea es el encabezado con las columnas name, email, password y phones,
+ * donde phones es una lista separada por ';' de teléfonos con formato number:citycode:countrycode.
+ */
+@Component
+public class UserImportParser {
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "email", "password", "phones");
+
+    private final ObjectReader jsonReader;
+
+    public UserImportParser(ObjectMapper objectMapper) {
+        this.jsonReader = objectMapper.readerFor(UserRequestDTO.class);
+    }
+
+    /**
+     * Convierte una línea NDJSON.
+     *
+     * @param line línea a convertir
+     * @return UserRequestDTO usuario leído.
+     * @throws IllegalArgumentException si la línea no es un objeto JSON válido
+     */
+    public UserRequestDTO parseJson(String line) {
+        // null, un arreglo o un valor simple son JSON válido, pero no un usuario
+        if (line == null || !line.stripLeading().startsWith("{")) {
+            throw new IllegalArgumentException("Se esperaba un objeto JSON por línea");
+        }
+        try {
+            return jsonReader.readValue(line);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("JSON inválido: " + ex.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Crea el conversor de líneas CSV a partir del encabezado.
+     *
+     * @param header primera línea del archivo
+     * @return conversor de las líneas siguientes.
+     * @throws IllegalArgumentException si al encabezado le falta alguna columna
+     */
+    public Function<String, UserRequestDTO> csvParser(String header) {
+        List<String> columns = new ArrayList<>();
+        for (String column : splitCsv(header)) {
+            columns.add(column.trim().toLowerCase());
+        }
+        int[] positions = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = columns.indexOf(CSV_COLUMNS.get(i));
+            if (positions[i] < 0) {
+                throw new IllegalArgumentException("El encabezado CSV debe tener las columnas " + CSV_COLUMNS);
+            }
+        }
+
+        return line -> {
+            List<String> values = splitCsv(line);
+            if (values.size() != columns.size()) {
+                throw new IllegalArgumentException("Se esperaban " + columns.size() + " columnas y se recibieron " + values.size());
+            }
+            UserRequestDTO user = new UserRequestDTO();
+            user.setName(values.get(positions[0]));
+            user.setEmail(values.get(positions[1]));
+            user.setPassword(values.get(positions[2]));
+            user.setPhones(parsePhones(values.get(positions[3])));
+            return user;
+        };
+    }
+
+    private List<Phone> parsePhones(String value) {
+        List<Phone> phones = new ArrayList<>();
+        if (value.isBlank()) {
+            return phones;
+        }
+        for (String phone : value.split(";")) {
+            String[] parts = phone.trim().split(":", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Teléfono inválido: " + phone);
+            }
+            phones.add(Phone.builder()
+                    .number(parts[0])
+                    .citycode(parts[1])
+                    .countrycode(parts[2])
+                    .build());
+        }
+        return phones;
+    }
+
+    /**
+     * Separa una línea CSV por comas respetando los valores entre comillas dobles,
+     * donde dos comillas seguidas representan una comilla literal.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Comillas sin cerrar en la línea CSV");
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
@@ -0,0 +1,46 @@
+package com.nisum.exam.userapi.util;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Generador de ids UUID versión 7 (RFC 9562): los primeros 48 bits son el instante en milisegundos,
+ * por lo que los ids nuevos quedan ordenados por fecha de creación y se insertan al final del índice
+ * de la llave primaria en lugar de en posiciones aleatorias. El resto de los bits son aleatorios.
+ */
+public final class UuidGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private UuidGenerator() {
+    }
+
+    /**
+     * Genera un nuevo UUID versión 7.
+     *
+     * @return UUID ordenado por tiempo
+     */
+    public static UUID timeOrdered() {
+        return timeOrdered(System.currentTimeMillis());
+    }
+
+    static UUID timeOrdered(long epochMillis) {
+        byte[] random = new byte[10];
+        RANDOM.nextBytes(random);
+
+        // 48 bits de tiempo, 4 bits de versión (0111) y 12 bits aleatorios
+        long mostSignificantBits = (epochMillis & 0xFFFF_FFFF_FFFFL) << 16
+                | 0x7000L
+                | ((random[0] & 0x0FL) << 8)
+                | (random[1] & 0xFFL);
+
+        // 2 bits de variante (10) y 62 bits aleatorios
+        long leastSignificantBits = 0;
+        for (int i = 2; i < 10; i++) {
+            leastSignificantBits = (leastSignificantBits << 8) | (random[i] & 0xFFL);
+        }
+        leastSignificantBits = (leastSignificantBits & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L;
+
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+}
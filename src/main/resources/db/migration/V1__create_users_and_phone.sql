@@ -0,0 +1,32 @@
+-- Usuarios. El id es un UUID binario de 16 bytes y el email se guarda normalizado en minúsculas.
+CREATE TABLE users (
+    id         UUID         NOT NULL,
+    name       VARCHAR(100),
+    email      VARCHAR(254) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    created    DATE,
+    modified   DATE,
+    last_login DATE,
+    token      VARCHAR(500) NOT NULL,
+    is_active  BOOLEAN,
+    CONSTRAINT pk_users PRIMARY KEY (id)
+);
+
+-- El índice único evita registros duplicados y resuelve la búsqueda por email sin recorrer la tabla
+CREATE UNIQUE INDEX ux_users_email ON users (email);
+
+-- Hibernate reserva los ids de teléfonos de a 50 para poder insertar en lotes
+CREATE SEQUENCE phone_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE phone (
+    id           BIGINT NOT NULL,
+    number       VARCHAR(20),
+    city_code    VARCHAR(5),
+    country_code VARCHAR(5),
+    user_id      UUID   NOT NULL,
+    CONSTRAINT pk_phone PRIMARY KEY (id),
+    CONSTRAINT fk_phone_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+-- Los teléfonos se cargan por usuario (IN (...) por lotes y JOIN por user_id)
+CREATE INDEX ix_phone_user_id ON phone (user_id);
@@ -0,0 +1,2 @@
+-- Versión de cada usuario para el bloqueo optimista y los ETag de las respuestas
+ALTER TABLE users ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
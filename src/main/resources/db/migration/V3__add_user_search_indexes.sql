@@ -0,0 +1,11 @@
+-- Búsqueda de usuarios por rango de fechas. En el índice de creación is_active va después de created,
+-- por lo que sirve tanto para "creados en el rango" como para "activos creados en el rango".
+CREATE INDEX ix_users_created_active ON users (created, is_active);
+CREATE INDEX ix_users_modified ON users (modified);
+CREATE INDEX ix_users_last_login ON users (last_login);
+
+-- Búsqueda por prefijo de nombre (LIKE 'prefijo%')
+CREATE INDEX ix_users_name ON users (name);
+
+-- Usuarios con teléfonos de un país y, opcionalmente, una ciudad. user_id al final evita leer la tabla phone.
+CREATE INDEX ix_phone_country_city_user ON phone (country_code, city_code, user_id);
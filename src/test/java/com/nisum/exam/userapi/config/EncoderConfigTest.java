@@ -0,0 +1,56 @@
+package com.nisum.exam.userapi.config;
+
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EncoderConfigTest {
+
+    private final EncoderConfig encoderConfig = new EncoderConfig();
+
+    @Test
+    void encoder_PrefixesHashesWithConfiguredAlgorithm() {
+        PasswordEncoderProperties properties = new PasswordEncoderProperties();
+        properties.setStrength(4);
+        PasswordEncoder encoder = encoderConfig.encoder(properties);
+
+        String encoded = encoder.encode("123Acb144*");
+
+        assertTrue(encoded.startsWith("{bcrypt}$2a$04$"));
+        assertTrue(encoder.matches("123Acb144*", encoded));
+        assertFalse(encoder.upgradeEncoding(encoded));
+    }
+
+    @Test
+    void encoder_MatchesAndUpgradesLegacyHashesWithoutPrefix() {
+        PasswordEncoderProperties properties = new PasswordEncoderProperties();
+        properties.setStrength(4);
+        PasswordEncoder encoder = encoderConfig.encoder(properties);
+        String legacy = new BCryptPasswordEncoder(4).encode("123Acb144*");
+
+        assertTrue(encoder.matches("123Acb144*", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+    }
+
+    @Test
+    void encoder_UsesPbkdf2WhenConfigured() {
+        PasswordEncoderProperties properties = new PasswordEncoderProperties();
+        properties.setAlgorithm("pbkdf2");
+        PasswordEncoder encoder = encoderConfig.encoder(properties);
+
+        assertTrue(encoder.encode("123Acb144*").startsWith("{pbkdf2}"));
+    }
+
+    @Test
+    void calibrateStrength_StaysWithinBounds() {
+        assertEquals(4, EncoderConfig.calibrateStrength(Duration.ZERO, 4, 6));
+        assertEquals(6, EncoderConfig.calibrateStrength(Duration.ofMinutes(1), 4, 6));
+    }
+}
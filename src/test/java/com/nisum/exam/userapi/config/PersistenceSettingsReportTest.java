@@ -0,0 +1,34 @@
+package com.nisum.exam.userapi.config;
+
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:prodprofile")
+@ActiveProfiles("prod")
+public class PersistenceSettingsReportTest {
+
+    @Autowired
+    private PersistenceSettingsReport persistenceSettingsReport;
+
+    @Test
+    void settings_ReportEffectivePoolAndBatchingOfProdProfile() {
+        Map<String, Object> settings = persistenceSettingsReport.settings();
+
+        assertThat(settings)
+                .containsEntry("pool.maximumPoolSize", 20)
+                .containsEntry("pool.minimumIdle", 20)
+                .containsEntry("pool.connectionTimeout", "5000ms")
+                .containsEntry("hibernate.jdbc.batch_size", "50")
+                .containsEntry("hibernate.order_inserts", "true")
+                .containsEntry("hibernate.order_updates", "true")
+                .containsEntry("hibernate.query.in_clause_parameter_padding", "true");
+        assertThat(settings.get("pool.dataSourceProperties").toString()).contains("QUERY_CACHE_SIZE=64");
+    }
+}
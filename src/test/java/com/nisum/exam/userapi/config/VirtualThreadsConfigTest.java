@@ -0,0 +1,34 @@
+package com.nisum.exam.userapi.config;
+
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME;
+
+public class VirtualThreadsConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadsConfig.class);
+
+    @Test
+    void virtualThreads_AreDisabledByDefault() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(APPLICATION_TASK_EXECUTOR_BEAN_NAME));
+    }
+
+    @Test
+    void virtualThreads_RunTasksOnVirtualThreadsOrFailFastBeforeJava21() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            if (Runtime.version().feature() < 21) {
+                assertThat(context).hasFailed();
+                assertThat(context.getStartupFailure()).hasRootCauseInstanceOf(NoSuchMethodException.class);
+                return;
+            }
+            AsyncTaskExecutor executor = context.getBean(APPLICATION_TASK_EXECUTOR_BEAN_NAME, AsyncTaskExecutor.class);
+            String threadDescription = executor.submit(() -> Thread.currentThread().toString()).get();
+            assertThat(threadDescription).startsWith("VirtualThread");
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.nisum.exam.userapi.controller;
+
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive",
+        "password.encoder.strength=4"
+})
+@AutoConfigureMockMvc
+public class ReactiveUserControllerTest {
+
+    private static final String USER = "{\"name\":\"Reactivo\",\"email\":\"%s\",\"password\":\"123Acb144*\","
+            + "\"phones\":[{\"number\":\"1234567\",\"citycode\":\"1\",\"countrycode\":\"57\"},"
+            + "{\"number\":\"7654321\",\"citycode\":\"2\",\"countrycode\":\"57\"}]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void reactiveApi_SharesDataAndErrorsWithBlockingApi() throws Exception {
+        MvcResult created = perform(post("/nisum/api/reactive/users")
+                .contentType(MediaType.APPLICATION_JSON).content(String.format(USER, "Reactivo@Test.com")));
+        assertThat(created.getResponse().getStatus()).isEqualTo(201);
+        assertThat(created.getResponse().getContentAsString()).contains("\"email\":\"reactivo@test.com\"");
+
+        MvcResult duplicated = perform(post("/nisum/api/reactive/users")
+                .contentType(MediaType.APPLICATION_JSON).content(String.format(USER, "reactivo@test.com")));
+        assertThat(duplicated.getResponse().getStatus()).isEqualTo(409);
+        assertThat(duplicated.getResponse().getContentAsString()).contains("mensaje");
+
+        MvcResult invalid = perform(post("/nisum/api/reactive/users")
+                .contentType(MediaType.APPLICATION_JSON).content(String.format(USER, "invalido@test")));
+        assertThat(invalid.getResponse().getStatus()).isEqualTo(400);
+
+        perform(post("/nisum/api/users")
+                .contentType(MediaType.APPLICATION_JSON).content(String.format(USER, "bloqueante@test.com")));
+
+        MvcResult page = perform(get("/nisum/api/reactive/users").param("size", "1"));
+        assertThat(page.getResponse().getStatus()).isEqualTo(200);
+        assertThat(page.getResponse().getContentAsString()).contains("reactivo@test.com", "7654321");
+        assertThat(page.getResponse().getHeader("X-Next-Cursor")).isNotNull();
+
+        MvcResult stream = perform(get("/nisum/api/reactive/users/stream").accept(MediaType.APPLICATION_NDJSON));
+        String[] lines = stream.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[1]).contains("bloqueante@test.com", "1234567", "7654321");
+
+        MvcResult blocking = perform(get("/nisum/api/users"));
+        assertThat(blocking.getResponse().getContentAsString()).contains("reactivo@test.com");
+    }
+
+    private MvcResult perform(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)).andReturn() : result;
+    }
+}
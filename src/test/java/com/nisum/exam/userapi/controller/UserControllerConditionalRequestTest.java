@@ -0,0 +1,72 @@
+package com.nisum.exam.userapi.controller;
+
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:etag",
+        "password.encoder.strength=4"
+})
+@AutoConfigureMockMvc
+public class UserControllerConditionalRequestTest {
+
+    private static final String USER = "{\"name\":\"Test\",\"email\":\"etag@test.com\",\"password\":\"123Acb144*\","
+            + "\"phones\":[{\"number\":\"1234567\",\"citycode\":\"1\",\"countrycode\":\"57\"}]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void conditionalRequests_UseUserVersionAsETag() throws Exception {
+        MvcResult created = perform(post("/nisum/api/users").contentType(MediaType.APPLICATION_JSON).content(USER));
+        assertThat(created.getResponse().getStatus()).isEqualTo(201);
+        assertThat(created.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo("\"0\"");
+        assertThat(created.getResponse().getContentAsString()).doesNotContain("version");
+        String id = created.getResponse().getContentAsString().replaceAll(".*\"id\":\"([^\"]+)\".*", "$1");
+
+        String pageETag = mockMvc.perform(get("/nisum/api/users"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/nisum/api/users").header(HttpHeaders.IF_NONE_MATCH, pageETag))
+                .andExpect(status().isNotModified());
+
+        MvcResult stale = perform(put("/nisum/api/users").header(HttpHeaders.IF_MATCH, "\"7\"")
+                .contentType(MediaType.APPLICATION_JSON).content(USER));
+        assertThat(stale.getResponse().getStatus()).isEqualTo(412);
+
+        MvcResult updated = perform(put("/nisum/api/users").header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON).content(USER.replace("Test", "Nuevo")));
+        assertThat(updated.getResponse().getStatus()).isEqualTo(200);
+        assertThat(updated.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo("\"1\"");
+
+        MvcResult stalePatch = perform(patch("/nisum/api/users/" + id).header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"Otro\"}"));
+        assertThat(stalePatch.getResponse().getStatus()).isEqualTo(412);
+
+        mockMvc.perform(get("/nisum/api/users").header(HttpHeaders.IF_NONE_MATCH, pageETag))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
+    private MvcResult perform(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)).andReturn() : result;
+    }
+}
@@ -0,0 +1,45 @@
+package com.nisum.exam.userapi.controller;
+
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics")
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+public class UserControllerMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheus_ExposesOperationTimersErrorsAndPoolStats() throws Exception {
+        mockMvc.perform(get("/nisum/api/users")).andExpect(status().isOk());
+        mockMvc.perform(post("/nisum/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Test\",\"email\":\"test@test\",\"password\":\"123Acb144*\","
+                                + "\"phones\":[{\"number\":\"1234567\",\"citycode\":\"1\",\"countrycode\":\"57\"}]}"))
+                .andExpect(status().isBadRequest());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .containsPattern("user_operations_seconds_bucket\\{.*operation=\"getUsers\"")
+                .containsPattern("user_operations_seconds_count\\{.*exception=\"InvalidEmailException\".*operation=\"saveUser\"")
+                .containsPattern("api_errors_total\\{.*exception=\"InvalidEmailException\".*status=\"400\"")
+                .contains("hikaricp_connections_active")
+                .contains("hibernate_statements_total");
+    }
+}
@@ -0,0 +1,80 @@
+package com.nisum.exam.userapi.controller;
+
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ratelimit",
+        "password.encoder.strength=4",
+        "rate-limit.endpoints.saveUser.capacity=1",
+        "rate-limit.endpoints.saveUser.refill-per-second=0.1",
+        "rate-limit.api-keys=cliente-a,cliente-b"
+})
+@AutoConfigureMockMvc
+public class UserControllerRateLimitTest {
+
+    private static final String USER = "{\"name\":\"Test\",\"email\":\"%s@test.com\",\"password\":\"123Acb144*\","
+            + "\"phones\":[{\"number\":\"1234567\",\"citycode\":\"1\",\"countrycode\":\"57\"}]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void saveUser_Returns429WithRetryAfterWhenClientExceedsLimit() throws Exception {
+        MvcResult created = mockMvc.perform(post("/nisum/api/users").header("X-API-Key", "cliente-a")
+                        .contentType(MediaType.APPLICATION_JSON).content(String.format(USER, "first")))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(created)).andExpect(status().isCreated());
+
+        mockMvc.perform(post("/nisum/api/users").header("X-API-Key", "cliente-a")
+                        .contentType(MediaType.APPLICATION_JSON).content(String.format(USER, "second")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"))
+                .andExpect(jsonPath("$.mensaje").exists());
+
+        // Otro cliente no se ve afectado
+        MvcResult other = mockMvc.perform(post("/nisum/api/users").header("X-API-Key", "cliente-b")
+                        .contentType(MediaType.APPLICATION_JSON).content(String.format(USER, "third")))
+                .andReturn();
+        assertThat(other.getRequest().isAsyncStarted()).isTrue();
+        mockMvc.perform(asyncDispatch(other)).andExpect(status().isCreated());
+    }
+
+    @Test
+    void saveUser_LimitsUnknownKeysByIp() throws Exception {
+        // Cada solicitud trae una llave nueva no registrada; todas cuentan contra la IP del cliente
+        MockHttpServletRequestBuilder first = post("/nisum/api/users").header("X-API-Key", "rotada-1")
+                .contentType(MediaType.APPLICATION_JSON).content(String.format(USER, "rotada1"));
+        MvcResult created = mockMvc.perform(first.with(remoteAddr("10.0.0.7"))).andReturn();
+        mockMvc.perform(asyncDispatch(created)).andExpect(status().isCreated());
+
+        MockHttpServletRequestBuilder second = post("/nisum/api/users").header("X-API-Key", "rotada-2")
+                .contentType(MediaType.APPLICATION_JSON).content(String.format(USER, "rotada2"));
+        mockMvc.perform(second.with(remoteAddr("10.0.0.7")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.mensaje").exists());
+    }
+
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
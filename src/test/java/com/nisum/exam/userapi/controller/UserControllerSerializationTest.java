@@ -0,0 +1,153 @@
+package com.nisum.exam.userapi.controller;
+
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.nisum.exam.userapi.entity.PhoneEntity;
+import com.nisum.exam.userapi.entity.UserEntity;
+import com.nisum.exam.userapi.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:serialization",
+        "spring.r2dbc.url=r2dbc:h2:mem:///serialization"
+})
+public class UserControllerSerializationTest {
+
+    private static final int USERS = 10;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        List<UserEntity> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(buildUserEntity("user" + i + "@test.com"));
+        }
+        userRepository.saveAll(users);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getUsers_ReturnsOnlyRequestedFields() throws Exception {
+        HttpResponse<byte[]> response = get("/nisum/api/users?fields=id,%20email", null);
+
+        JsonNode users = objectMapper.readTree(response.body());
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(users).hasSize(USERS);
+        users.forEach(user -> assertThat(fieldNames(user)).containsExactlyInAnyOrder("id", "email"));
+    }
+
+    @Test
+    void getUsers_ReturnsAllFieldsWithoutFieldsParameter() throws Exception {
+        JsonNode users = objectMapper.readTree(get("/nisum/api/users", null).body());
+
+        assertThat(fieldNames(users.get(0))).contains("id", "name", "email", "phones", "token", "isActive");
+    }
+
+    @Test
+    void getUsers_Returns400ForUnknownField() throws Exception {
+        HttpResponse<byte[]> response = get("/nisum/api/users?fields=id,version", null);
+
+        assertThat(response.statusCode()).isEqualTo(400);
+        assertThat(objectMapper.readTree(response.body()).get("mensaje").asText()).contains("version");
+    }
+
+    @Test
+    void getUsers_CompressesResponseWhenClientAcceptsGzip() throws Exception {
+        HttpResponse<byte[]> response = get("/nisum/api/users", "gzip");
+
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            byte[] json = body.readAllBytes();
+            assertThat(json.length).isGreaterThan(response.body().length);
+            assertThat(objectMapper.readTree(json)).hasSize(USERS);
+        }
+    }
+
+    @Test
+    void exportUsers_CompressesOnlyWhenGzipIsAccepted() throws Exception {
+        HttpResponse<byte[]> compressed = get("/nisum/api/users/export", "gzip");
+        HttpResponse<byte[]> refused = get("/nisum/api/users/export", "gzip;q=0, identity");
+
+        assertThat(compressed.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(compressed.body()))) {
+            assertThat(new String(body.readAllBytes(), StandardCharsets.UTF_8).split("\n")).hasSize(USERS);
+        }
+        assertThat(refused.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(new String(refused.body(), StandardCharsets.UTF_8).split("\n")).hasSize(USERS);
+    }
+
+    @Test
+    void objectMapper_RegistersBlackbirdModule() {
+        assertThat(objectMapper.getRegisteredModuleIds()).contains(new BlackbirdModule().getTypeId());
+    }
+
+    private HttpResponse<byte[]> get(String path, String acceptEncoding) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static Set<String> fieldNames(JsonNode node) {
+        Set<String> names = new TreeSet<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private UserEntity buildUserEntity(String email) {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setId(UUID.randomUUID());
+        userEntity.setName("Test");
+        userEntity.setEmail(email);
+        userEntity.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6jZ5yC9oVhYb2O6GkTe3hKO");
+        userEntity.setCreated(LocalDate.now());
+        userEntity.setToken("eyJhbGciOiJIUzUxMiJ9.eyJzdWIiOiJjYW1pbG9AZ21haWwuY2wifQ.signature");
+        userEntity.setIsActive(true);
+        PhoneEntity phoneEntity = new PhoneEntity();
+        phoneEntity.setNumber("1234567");
+        phoneEntity.setCityCode("1");
+        phoneEntity.setCountryCode("57");
+        phoneEntity.setUser(userEntity);
+        userEntity.setPhones(List.of(phoneEntity));
+        return userEntity;
+    }
+}
@@ -2,11 +2,22 @@ package com.nisum.exam.userapi.controller;
 
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nisum.exam.userapi.dto.request.UserPatchRequestDTO;
 import com.nisum.exam.userapi.dto.request.UserRequestDTO;
+import com.nisum.exam.userapi.dto.response.PhoneResponseDTO;
+import com.nisum.exam.userapi.dto.response.UserImportResultDTO;
+import com.nisum.exam.userapi.dto.response.UserPageResponseDTO;
 import com.nisum.exam.userapi.dto.response.UserResponseDTO;
+import com.nisum.exam.userapi.exception.GlobalExceptionHandler;
+import com.nisum.exam.userapi.model.ImportFormat;
 import com.nisum.exam.userapi.model.Phone;
 import com.nisum.exam.userapi.model.User;
+import com.nisum.exam.userapi.model.UserSearchFilter;
+import com.nisum.exam.userapi.service.UserExportServiceInterface;
+import com.nisum.exam.userapi.service.UserImportServiceInterface;
 import com.nisum.exam.userapi.service.UserServiceInterface;
+import com.nisum.exam.userapi.util.UserExportWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,17 +31,32 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static com.nisum.exam.userapi.util.Constants.NEXT_CURSOR_HEADER;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,12 +65,18 @@ public class UserControllerTest {
 
 
     private UserServiceInterface userServiceInterface;
+    private UserImportServiceInterface userImportServiceInterface;
+    private UserExportServiceInterface userExportServiceInterface;
     private UserController userController;
 
     @BeforeEach
     void setUp() {
         userServiceInterface = mock(UserServiceInterface.class);
-        userController = new UserController(userServiceInterface);
+        userImportServiceInterface = mock(UserImportServiceInterface.class);
+        userExportServiceInterface = mock(UserExportServiceInterface.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        userController = new UserController(userServiceInterface, userImportServiceInterface, userExportServiceInterface,
+                new UserExportWriter(objectMapper), objectMapper);
     }
 
     @Test
@@ -52,28 +84,180 @@ public class UserControllerTest {
         UserResponseDTO user1 = new UserResponseDTO();
         UserResponseDTO user2 = new UserResponseDTO();
         List<UserResponseDTO> users = Arrays.asList(user1, user2);
+        UserPageResponseDTO page = new UserPageResponseDTO(users, "next-cursor");
 
-        when(userServiceInterface.getUsers()).thenReturn(users);
+        when(userServiceInterface.getUsers(null, 2)).thenReturn(page);
 
-        ResponseEntity<List<UserResponseDTO>> response = userController.getUsers();
+        ResponseEntity<List<UserResponseDTO>> response = userController.getUsers(null, 2);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(2, response.getBody().size());
-        verify(userServiceInterface, times(1)).getUsers();
+        assertEquals("next-cursor", response.getHeaders().getFirst(NEXT_CURSOR_HEADER));
+        assertTrue(response.getHeaders().getETag().startsWith("W/\""));
+        verify(userServiceInterface, times(1)).getUsers(null, 2);
+    }
+
+    @Test
+    void searchUsers_BindsFiltersFromQueryParameters() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(userController).build();
+        when(userServiceInterface.searchUsers(any(), eq(null), eq(50)))
+                .thenReturn(new UserPageResponseDTO(List.of(new UserResponseDTO()), null));
+
+        mockMvc.perform(get("/nisum/api/users/search")
+                        .param("active", "true")
+                        .param("createdFrom", "2024-01-01")
+                        .param("namePrefix", "Ju")
+                        .param("countryCode", "57")
+                        .param("cityCode", " "))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<UserSearchFilter> filter = ArgumentCaptor.forClass(UserSearchFilter.class);
+        verify(userServiceInterface).searchUsers(filter.capture(), eq(null), eq(50));
+        assertEquals(Boolean.TRUE, filter.getValue().getActive());
+        assertEquals(LocalDate.of(2024, 1, 1), filter.getValue().getCreatedFrom());
+        assertEquals("Ju", filter.getValue().getNamePrefix());
+        assertEquals("57", filter.getValue().getCountryCode());
+        assertNull(filter.getValue().getCityCode());
+    }
+
+    @Test
+    void searchUsers_ReturnsBadRequestForInvalidDate() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(userController)
+                .setControllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry()))
+                .build();
+
+        mockMvc.perform(get("/nisum/api/users/search").param("createdFrom", "01-01-2024"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.mensaje").value("El parámetro createdFrom tiene un formato invalido"));
+
+        verifyNoInteractions(userServiceInterface);
+    }
+
+    @Test
+    void getUser_ReturnsUserWithVersionAsETag() {
+        UUID id = UUID.randomUUID();
+        UserResponseDTO responseDTO = UserResponseDTO.builder().id(id).version(3L).build();
+
+        when(userServiceInterface.getUser(id)).thenReturn(responseDTO);
+
+        ResponseEntity<UserResponseDTO> response = userController.getUser(id);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(id, response.getBody().getId());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void streamUsers_WritesOneJsonLinePerUser() throws Exception {
+        UserResponseDTO user1 = UserResponseDTO.builder().email("first@test.com").build();
+        UserResponseDTO user2 = UserResponseDTO.builder().email("second@test.com").build();
+
+        doAnswer(invocation -> {
+            Consumer<UserResponseDTO> consumer = invocation.getArgument(0);
+            consumer.accept(user1);
+            consumer.accept(user2);
+            return null;
+        }).when(userServiceInterface).streamUsers(any());
+
+        ResponseEntity<StreamingResponseBody> response = userController.streamUsers();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("second@test.com"));
+    }
+
+    @Test
+    void exportUsers_WritesCsvWhenAcceptedAndResumesAfterId() throws Exception {
+        UUID after = UUID.randomUUID();
+        UserResponseDTO user = UserResponseDTO.builder()
+                .id(UUID.randomUUID())
+                .name("Pérez, \"Juan\"")
+                .email("juan@test.com")
+                .created(LocalDate.of(2024, 1, 2))
+                .token("token")
+                .isActive(true)
+                .version(1L)
+                .phones(List.of(PhoneResponseDTO.builder().number("1234567").citycode("1").countrycode("57").build(),
+                        PhoneResponseDTO.builder().number("7654321").citycode("2").countrycode("56").build()))
+                .build();
+
+        doAnswer(invocation -> {
+            Consumer<UserResponseDTO> consumer = invocation.getArgument(1);
+            consumer.accept(user);
+            return null;
+        }).when(userExportServiceInterface).exportUsers(eq(after), any());
+
+        ResponseEntity<StreamingResponseBody> response = userController.exportUsers(after, "text/csv");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(MediaType.parseMediaType("text/csv"), response.getHeaders().getContentType());
+        assertEquals(2, lines.length);
+        assertEquals("id,name,email,created,modified,last_login,token,is_active,version,phones", lines[0]);
+        assertEquals(user.getId() + ",\"Pérez, \"\"Juan\"\"\",juan@test.com,2024-01-02,,,token,true,1,1234567:1:57;7654321:2:56", lines[1]);
+    }
+
+    @Test
+    void exportUsers_WritesPlainNdjsonByDefault() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserResponseDTO> consumer = invocation.getArgument(1);
+            consumer.accept(UserResponseDTO.builder().email("first@test.com").build());
+            consumer.accept(UserResponseDTO.builder().email("second@test.com").build());
+            return null;
+        }).when(userExportServiceInterface).exportUsers(eq(null), any());
+
+        ResponseEntity<StreamingResponseBody> response = userController.exportUsers(null, "*/*");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("second@test.com"));
+    }
+
+    @Test
+    void importUsers_PassesCsvLinesAndWritesOneResultPerLine() throws Exception {
+        List<String> received = new ArrayList<>();
+        doAnswer(invocation -> {
+            Stream<String> lines = invocation.getArgument(0);
+            received.addAll(lines.collect(Collectors.toList()));
+            Consumer<UserImportResultDTO> consumer = invocation.getArgument(2);
+            consumer.accept(UserImportResultDTO.builder().line(2).status(UserImportResultDTO.CREATED).build());
+            consumer.accept(UserImportResultDTO.builder().line(3).status(UserImportResultDTO.ERROR).mensaje("error").build());
+            return null;
+        }).when(userImportServiceInterface).importUsers(any(), eq(ImportFormat.CSV), any());
+
+        String csv = "name,email,password,phones\nUno,uno@test.com,123Acb144*,1234567:1:57\nDos,dos,123Acb144*,\n";
+        ResponseEntity<StreamingResponseBody> response = userController.importUsers(MediaType.parseMediaType("text/csv"),
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, received.size());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("\"mensaje\":\"error\""));
     }
 
     @Test
     void saveUser_ReturnsCreatedUser() {
         UserRequestDTO requestDTO = mock(UserRequestDTO.class);
         User user = new User();
-        UserResponseDTO responseDTO = new UserResponseDTO();
+        UserResponseDTO responseDTO = UserResponseDTO.builder().version(0L).build();
 
         when(requestDTO.toModel()).thenReturn(user);
-        when(userServiceInterface.saveUser(user)).thenReturn(responseDTO);
+        when(userServiceInterface.saveUser(user)).thenReturn(CompletableFuture.completedFuture(responseDTO));
 
-        ResponseEntity<UserResponseDTO> response = userController.saveUser(requestDTO);
+        ResponseEntity<UserResponseDTO> response = userController.saveUser(requestDTO).join();
 
         assertEquals(201, response.getStatusCodeValue());
+        assertEquals("\"0\"", response.getHeaders().getETag());
         assertEquals(responseDTO, response.getBody());
         verify(userServiceInterface, times(1)).saveUser(user);
     }
@@ -82,16 +266,36 @@ public class UserControllerTest {
     void updateUser_ReturnsUpdatedUser() {
         UserRequestDTO requestDTO = mock(UserRequestDTO.class);
         User user = new User();
-        UserResponseDTO responseDTO = new UserResponseDTO();
+        UserResponseDTO responseDTO = UserResponseDTO.builder().version(4L).build();
 
         when(requestDTO.toModel()).thenReturn(user);
-        when(userServiceInterface.updateUser(user)).thenReturn(responseDTO);
+        when(userServiceInterface.updateUser(user)).thenReturn(CompletableFuture.completedFuture(responseDTO));
 
-        ResponseEntity<UserResponseDTO> response = userController.updateUser(requestDTO);
+        ResponseEntity<UserResponseDTO> response = userController.updateUser("\"3\"", requestDTO).join();
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(responseDTO, response.getBody());
+        assertEquals(3L, user.getVersion());
+        assertEquals("\"4\"", response.getHeaders().getETag());
         verify(userServiceInterface, times(1)).updateUser(user);
     }
 
+    @Test
+    void patchUser_ReturnsPatchedUser() {
+        UUID id = UUID.randomUUID();
+        UserPatchRequestDTO requestDTO = new UserPatchRequestDTO();
+        requestDTO.setName("Nuevo");
+        UserResponseDTO responseDTO = UserResponseDTO.builder().version(1L).build();
+
+        when(userServiceInterface.patchUser(eq(id), any(User.class))).thenReturn(CompletableFuture.completedFuture(responseDTO));
+
+        ResponseEntity<UserResponseDTO> response = userController.patchUser(id, null, requestDTO).join();
+
+        ArgumentCaptor<User> changes = ArgumentCaptor.forClass(User.class);
+        verify(userServiceInterface).patchUser(eq(id), changes.capture());
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("Nuevo", changes.getValue().getName());
+        assertNull(changes.getValue().getPassword());
+    }
+
 }
@@ -0,0 +1,218 @@
+package com.nisum.exam.userapi.repository;
+
+import com.nisum.exam.userapi.entity.PhoneEntity;
+import com.nisum.exam.userapi.entity.UserEntity;
+import com.nisum.exam.userapi.model.UserSearchFilter;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica los resultados de la búsqueda y que H2 resuelva cada filtro con su índice: se captura el SQL
+ * que genera Hibernate y se revisa el plan que entrega EXPLAIN.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:usersearch",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.nisum.exam.userapi.repository.UserSearchRepositoryTest$SqlRecorder"
+})
+public class UserSearchRepositoryTest {
+
+    private static final int USERS = 200;
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 30);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<UserEntity> seeded;
+
+    @BeforeEach
+    void setUp() {
+        seeded = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            seeded.add(buildUserEntity(i));
+        }
+        userRepository.saveAll(seeded);
+        SqlRecorder.SQL.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void search_FiltersByActiveAndCreatedRange() {
+        UserSearchFilter filter = UserSearchFilter.builder()
+                .active(true)
+                .createdFrom(TODAY.minusDays(10))
+                .createdTo(TODAY.minusDays(5))
+                .build();
+
+        assertSearchReturns(filter, user -> user.getIsActive()
+                && !user.getCreated().isBefore(TODAY.minusDays(10))
+                && !user.getCreated().isAfter(TODAY.minusDays(5)));
+    }
+
+    @Test
+    void search_FiltersByModifiedAndLastLoginRanges() {
+        UserSearchFilter filter = UserSearchFilter.builder()
+                .modifiedFrom(TODAY.minusDays(3))
+                .lastLoginTo(TODAY.minusDays(1))
+                .build();
+
+        assertSearchReturns(filter, user -> !user.getModified().isBefore(TODAY.minusDays(3))
+                && !user.getLastLogin().isAfter(TODAY.minusDays(1)));
+    }
+
+    @Test
+    void search_FiltersByPhoneCountryAndCityWithoutDuplicates() {
+        UserSearchFilter filter = UserSearchFilter.builder().countryCode("56").cityCode("2").build();
+
+        assertSearchReturns(filter, user -> user.getPhones().stream()
+                .anyMatch(phone -> "56".equals(phone.getCountryCode()) && "2".equals(phone.getCityCode())));
+    }
+
+    @Test
+    void search_NamePrefixEscapesLikeWildcards() {
+        assertSearchReturns(UserSearchFilter.builder().namePrefix("Ca_").build(),
+                user -> user.getName().startsWith("Ca_"));
+        assertSearchReturns(UserSearchFilter.builder().namePrefix("%").build(), user -> false);
+    }
+
+    @Test
+    void search_PagesByKeysetWithoutRepeatingUsers() {
+        UserSearchFilter filter = UserSearchFilter.builder().active(false).build();
+
+        List<UUID> ids = new ArrayList<>();
+        UUID after = null;
+        List<UserEntity> page;
+        do {
+            page = userRepository.search(filter, after, 7);
+            page.forEach(user -> ids.add(user.getId()));
+            after = page.isEmpty() ? null : page.get(page.size() - 1).getId();
+        } while (page.size() == 7);
+
+        assertEquals(USERS / 2, ids.size());
+        assertEquals(USERS / 2, Set.copyOf(ids).size());
+    }
+
+    @Test
+    void search_UsesCreatedActiveIndexForCreatedRange() {
+        String plan = planOf(UserSearchFilter.builder().active(true).createdFrom(TODAY.minusDays(7)).build());
+
+        assertTrue(plan.contains("IX_USERS_CREATED_ACTIVE"), plan);
+    }
+
+    @Test
+    void search_UsesModifiedIndexForModifiedRange() {
+        String plan = planOf(UserSearchFilter.builder().modifiedFrom(TODAY.minusDays(2)).modifiedTo(TODAY).build());
+
+        assertTrue(plan.contains("IX_USERS_MODIFIED"), plan);
+    }
+
+    @Test
+    void search_UsesLastLoginIndexForLastLoginRange() {
+        String plan = planOf(UserSearchFilter.builder().lastLoginFrom(TODAY.minusDays(2)).build());
+
+        assertTrue(plan.contains("IX_USERS_LAST_LOGIN"), plan);
+    }
+
+    @Test
+    void search_UsesNameIndexForNamePrefix() {
+        String plan = planOf(UserSearchFilter.builder().namePrefix("Ana").build());
+
+        assertTrue(plan.contains("IX_USERS_NAME"), plan);
+    }
+
+    @Test
+    void search_UsesCoveringPhoneIndexForCountryAndCity() {
+        String plan = planOf(UserSearchFilter.builder().countryCode("56").cityCode("2").build());
+
+        assertTrue(plan.contains("IX_PHONE_COUNTRY_CITY_USER"), plan);
+        assertFalse(plan.contains("PHONE.tableScan"), plan);
+    }
+
+    private void assertSearchReturns(UserSearchFilter filter, Predicate<UserEntity> expected) {
+        Set<UUID> expectedIds = seeded.stream()
+                .filter(expected)
+                .map(UserEntity::getId)
+                .collect(Collectors.toSet());
+
+        List<UUID> ids = userRepository.search(filter, null, USERS + 1).stream()
+                .map(UserEntity::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(expectedIds.size(), ids.size());
+        assertEquals(expectedIds, Set.copyOf(ids));
+    }
+
+    private String planOf(UserSearchFilter filter) {
+        userRepository.search(filter, null, 20);
+        String sql = SqlRecorder.SQL.stream()
+                .filter(statement -> statement.contains(" from users "))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    private UserEntity buildUserEntity(int i) {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setId(UUID.randomUUID());
+        userEntity.setName(List.of("Ana", "Beto", "Ca_lo", "Carlo").get(i % 4) + " " + i);
+        userEntity.setEmail("user" + i + "@test.com");
+        userEntity.setPassword("pass");
+        userEntity.setCreated(TODAY.minusDays(i % 30));
+        userEntity.setModified(TODAY.minusDays(i % 11));
+        userEntity.setLastLogin(TODAY.minusDays(i % 7));
+        userEntity.setToken("token");
+        userEntity.setIsActive(i % 2 == 0);
+        userEntity.setPhones(List.of(
+                buildPhone(userEntity, i % 3 == 0 ? "56" : "57", "2"),
+                buildPhone(userEntity, i % 3 == 0 ? "56" : "57", i % 5 == 0 ? "2" : "1")));
+        return userEntity;
+    }
+
+    private PhoneEntity buildPhone(UserEntity userEntity, String countryCode, String cityCode) {
+        PhoneEntity phoneEntity = new PhoneEntity();
+        phoneEntity.setNumber("1234567");
+        phoneEntity.setCityCode(cityCode);
+        phoneEntity.setCountryCode(countryCode);
+        phoneEntity.setUser(userEntity);
+        return phoneEntity;
+    }
+
+    /**
+     * Guarda el SQL que prepara Hibernate para poder pedir su plan de ejecución.
+     */
+    public static class SqlRecorder implements StatementInspector {
+
+        private static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
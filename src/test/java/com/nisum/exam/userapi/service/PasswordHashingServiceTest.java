@@ -0,0 +1,112 @@
+package com.nisum.exam.userapi.service;
+
+
+import com.nisum.exam.userapi.config.HashingProperties;
+import com.nisum.exam.userapi.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PasswordHashingServiceTest {
+
+    private PasswordEncoder passwordEncoder;
+    private MeterRegistry meterRegistry;
+    private PasswordHashingService passwordHashingService;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = mock(PasswordEncoder.class);
+        meterRegistry = new SimpleMeterRegistry();
+        release = new CountDownLatch(1);
+
+        HashingProperties hashingProperties = new HashingProperties();
+        hashingProperties.setThreads(1);
+        hashingProperties.setQueueCapacity(1);
+        passwordHashingService = new PasswordHashingService(passwordEncoder, hashingProperties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    void encode_ReturnsEncodedPasswordAndRecordsLatency() {
+        when(passwordEncoder.encode("123Acb144*")).thenReturn("encodedPass");
+
+        assertEquals("encodedPass", passwordHashingService.encode("123Acb144*").join());
+        assertEquals(1, meterRegistry.get("password.hashing.latency").timer().count());
+    }
+
+    @Test
+    void encode_ThrowsHashingCapacityExceededExceptionWhenQueueIsFull() {
+        when(passwordEncoder.encode(any())).thenAnswer(invocation -> {
+            release.await();
+            return "encodedPass";
+        });
+
+        // Uno ocupa el único hilo y otro la única posición de la cola
+        CompletableFuture<String> running = passwordHashingService.encode("first");
+        CompletableFuture<String> queued = passwordHashingService.encode("second");
+
+        assertThrows(HashingCapacityExceededException.class, () -> passwordHashingService.encode("third"));
+        assertEquals(1, meterRegistry.get("password.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("encodedPass", running.join());
+        assertEquals("encodedPass", queued.join());
+    }
+
+    @Test
+    void encodeIfChanged_KeepsCurrentHashWhenPasswordIsUnchanged() {
+        PasswordHashingService service = newServiceWith(new BCryptPasswordEncoder(4));
+        String stored = new BCryptPasswordEncoder(4).encode("123Acb144*");
+
+        assertEquals(stored, service.encodeIfChanged("123Acb144*", stored).join());
+        service.shutdown();
+    }
+
+    @Test
+    void encodeIfChanged_RehashesWhenStoredHashUsesOlderCost() {
+        PasswordHashingService service = newServiceWith(new BCryptPasswordEncoder(5));
+        String stored = new BCryptPasswordEncoder(4).encode("123Acb144*");
+
+        String rehashed = service.encodeIfChanged("123Acb144*", stored).join();
+
+        assertNotEquals(stored, rehashed);
+        assertTrue(rehashed.startsWith("$2a$05$"));
+        service.shutdown();
+    }
+
+    @Test
+    void encodeIfChanged_EncodesWhenPasswordChanged() {
+        PasswordHashingService service = newServiceWith(new BCryptPasswordEncoder(4));
+        String stored = new BCryptPasswordEncoder(4).encode("123Acb144*");
+
+        String encoded = service.encodeIfChanged("456Xyz789*", stored).join();
+
+        assertTrue(new BCryptPasswordEncoder(4).matches("456Xyz789*", encoded));
+        service.shutdown();
+    }
+
+    private PasswordHashingService newServiceWith(PasswordEncoder encoder) {
+        return new PasswordHashingService(encoder, new HashingProperties(), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,64 @@
+package com.nisum.exam.userapi.service;
+
+
+import com.nisum.exam.userapi.config.RateLimitProperties;
+import com.nisum.exam.userapi.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RateLimitServiceTest {
+
+    private MeterRegistry meterRegistry;
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(2);
+        limit.setRefillPerSecond(0.01);
+        limit.setMaxConcurrent(1);
+
+        RateLimitProperties rateLimitProperties = new RateLimitProperties();
+        rateLimitProperties.getEndpoints().put("saveUser", limit);
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitService = new RateLimitService(rateLimitProperties, meterRegistry);
+    }
+
+    @Test
+    void acquire_RejectsWhenClientExceedsRateWithRetryAfter() {
+        rateLimitService.acquire("saveUser", "ip:1").run();
+        rateLimitService.acquire("saveUser", "ip:1").run();
+
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> rateLimitService.acquire("saveUser", "ip:1"));
+
+        assertEquals(100, ex.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.get("rate.limit.rejected").tag("reason", "rate").counter().count());
+        // Otro cliente tiene su propio balde
+        assertDoesNotThrow(() -> rateLimitService.acquire("saveUser", "ip:2"));
+    }
+
+    @Test
+    void acquire_RejectsConcurrentRequestsOverCapUntilReleased() {
+        Runnable release = rateLimitService.acquire("saveUser", "key:abc");
+
+        assertThrows(RateLimitExceededException.class, () -> rateLimitService.acquire("saveUser", "key:abc"));
+        assertEquals(1, meterRegistry.get("rate.limit.rejected").tag("reason", "concurrency").counter().count());
+
+        release.run();
+        assertDoesNotThrow(() -> rateLimitService.acquire("saveUser", "key:abc"));
+    }
+
+    @Test
+    void acquire_DoesNotLimitEndpointsWithoutConfiguration() {
+        for (int i = 0; i < 100; i++) {
+            rateLimitService.acquire("getUsers", "ip:1");
+        }
+    }
+}
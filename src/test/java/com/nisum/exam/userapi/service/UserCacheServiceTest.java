@@ -0,0 +1,81 @@
+package com.nisum.exam.userapi.service;
+
+
+import com.nisum.exam.userapi.entity.UserEntity;
+import com.nisum.exam.userapi.model.User;
+import com.nisum.exam.userapi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.nisum.exam.userapi.config.CacheConfig.USERS_CACHE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:usercache")
+public class UserCacheServiceTest {
+
+    @Autowired
+    private UserCacheService userCacheService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(USERS_CACHE).clear();
+    }
+
+    @Test
+    void findByEmail_SecondLookupIsServedFromCache() {
+        when(userRepository.findByEmail("test@test.com")).thenReturn(Optional.of(buildUserEntity()));
+
+        Optional<User> first = userCacheService.findByEmail("test@test.com");
+        Optional<User> second = userCacheService.findByEmail("test@test.com");
+
+        assertTrue(second.isPresent());
+        assertEquals(first.get().getId(), second.get().getId());
+        verify(userRepository, times(1)).findByEmail("test@test.com");
+    }
+
+    @Test
+    void findByEmail_DoesNotCacheMissingUsers() {
+        when(userRepository.findByEmail("missing@test.com")).thenReturn(Optional.empty());
+
+        userCacheService.findByEmail("missing@test.com");
+        userCacheService.findByEmail("missing@test.com");
+
+        verify(userRepository, times(2)).findByEmail("missing@test.com");
+    }
+
+    @Test
+    void evict_ForcesNextLookupToHitRepository() {
+        when(userRepository.findByEmail("test@test.com")).thenReturn(Optional.of(buildUserEntity()));
+
+        userCacheService.findByEmail("test@test.com");
+        userCacheService.evict("test@test.com");
+        userCacheService.findByEmail("test@test.com");
+
+        verify(userRepository, times(2)).findByEmail("test@test.com");
+    }
+
+    private UserEntity buildUserEntity() {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setId(UUID.randomUUID());
+        userEntity.setEmail("test@test.com");
+        userEntity.setName("Test");
+        return userEntity;
+    }
+}
@@ -0,0 +1,153 @@
+package com.nisum.exam.userapi.service;
+
+
+import com.nisum.exam.userapi.dto.response.UserResponseDTO;
+import com.nisum.exam.userapi.entity.PhoneEntity;
+import com.nisum.exam.userapi.entity.UserEntity;
+import com.nisum.exam.userapi.repository.UserRepository;
+import org.h2.engine.SessionLocal;
+import org.h2.jdbc.JdbcConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.nisum.exam.userapi.service.impl.UserExportServiceInterfaceImpl.EXPORT_AFTER_SQL;
+import static com.nisum.exam.userapi.service.impl.UserExportServiceInterfaceImpl.EXPORT_SQL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:export",
+        "persistence.export.fetch-size=7"
+})
+public class UserExportServiceTest {
+
+    private static final int USERS = 50;
+
+    @Autowired
+    private UserExportServiceInterface userExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Map<UUID, Integer> phonesByUser;
+
+    @BeforeEach
+    void setUp() {
+        List<UserEntity> users = new ArrayList<>();
+        phonesByUser = new HashMap<>();
+        for (int i = 0; i < USERS; i++) {
+            // Usuarios con 0, 1 y 2 teléfonos para cubrir el LEFT JOIN y el agrupamiento de filas
+            UserEntity userEntity = buildUserEntity("user" + i + "@test.com", i % 3);
+            users.add(userEntity);
+            phonesByUser.put(userEntity.getId(), i % 3);
+        }
+        userRepository.saveAll(users);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void exportUsers_SendsEveryUserOnceWithAllItsPhones() {
+        List<UserResponseDTO> exported = new ArrayList<>();
+        userExportService.exportUsers(null, exported::add);
+
+        assertEquals(USERS, exported.size());
+        assertEquals(USERS, exported.stream().map(UserResponseDTO::getId).distinct().count());
+        exported.forEach(user -> assertEquals(phonesByUser.get(user.getId()), user.getPhones().size()));
+        exported.forEach(user -> assertNull(user.getPassword()));
+    }
+
+    @Test
+    void exportUsers_ResumesAfterLastReceivedId() {
+        List<UUID> all = new ArrayList<>();
+        userExportService.exportUsers(null, user -> all.add(user.getId()));
+
+        List<UUID> resumed = new ArrayList<>();
+        userExportService.exportUsers(all.get(19), user -> resumed.add(user.getId()));
+
+        assertEquals(all.subList(20, USERS), resumed);
+    }
+
+    @Test
+    void exportUsers_ReadsInPrimaryKeyOrderWithoutSortingTheResult() {
+        // El orden por id debe salir del índice de la llave primaria; ordenar en memoria obligaría a leer todo
+        for (String sql : List.of(EXPORT_SQL, EXPORT_AFTER_SQL)) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+
+            assertTrue(plan.contains("PRIMARY_KEY"), plan);
+            assertTrue(plan.contains("/* index sorted */"), plan);
+            assertTrue(plan.contains("USER_ID = U.ID */"), plan);
+            assertFalse(plan.contains("PHONE.tableScan"), plan);
+        }
+    }
+
+    @Test
+    void exportUsers_ReadsLazilyOnH2AndRestoresTheConnection() {
+        // H2 ignora el fetch size; sin LAZY_QUERY_EXECUTION armaría todo el resultado antes de la primera fila
+        List<Boolean> lazyDuringExport = new ArrayList<>();
+        boolean lazyAfterExport = transactionTemplate.execute(status -> {
+            userExportService.exportUsers(null, user -> lazyDuringExport.add(isLazyQueryExecution()));
+            return isLazyQueryExecution();
+        });
+
+        // El último usuario se entrega al cerrar la consulta, cuando la conexión ya se restableció
+        assertEquals(USERS, lazyDuringExport.size());
+        assertTrue(lazyDuringExport.get(0));
+        assertFalse(lazyAfterExport);
+    }
+
+    private boolean isLazyQueryExecution() {
+        return jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                ((SessionLocal) connection.unwrap(JdbcConnection.class).getSession()).isLazyQueryExecution());
+    }
+
+    private UserEntity buildUserEntity(String email, int phones) {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setId(UUID.randomUUID());
+        userEntity.setName("Test");
+        userEntity.setEmail(email);
+        userEntity.setPassword("pass");
+        userEntity.setCreated(LocalDate.now());
+        userEntity.setToken("token");
+        userEntity.setIsActive(true);
+        userEntity.setPhones(IntStream.range(0, phones)
+                .mapToObj(i -> buildPhone(userEntity, String.valueOf(i)))
+                .collect(Collectors.toList()));
+        return userEntity;
+    }
+
+    private PhoneEntity buildPhone(UserEntity userEntity, String number) {
+        PhoneEntity phoneEntity = new PhoneEntity();
+        phoneEntity.setNumber(number);
+        phoneEntity.setCityCode("1");
+        phoneEntity.setCountryCode("57");
+        phoneEntity.setUser(userEntity);
+        return phoneEntity;
+    }
+}
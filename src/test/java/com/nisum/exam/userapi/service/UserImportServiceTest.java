@@ -0,0 +1,132 @@
+package com.nisum.exam.userapi.service;
+
+
+import com.nisum.exam.userapi.dto.response.UserImportResultDTO;
+import com.nisum.exam.userapi.model.ImportFormat;
+import com.nisum.exam.userapi.repository.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:userimport",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "password.encoder.strength=4"
+})
+public class UserImportServiceTest {
+
+    private static final int USERS = 120;
+
+    @Autowired
+    private UserImportServiceInterface userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importUsers_InsertsNdjsonInJdbcBatches() {
+        Stream<String> lines = IntStream.range(0, USERS).mapToObj(i ->
+                "{\"name\":\"User " + i + "\",\"email\":\"user" + i + "@test.com\",\"password\":\"123Acb144*\","
+                        + "\"phones\":[{\"number\":\"1234567\",\"citycode\":\"1\",\"countrycode\":\"57\"}]}");
+
+        List<UserImportResultDTO> results = importUsers(lines, ImportFormat.NDJSON);
+
+        assertEquals(USERS, results.size());
+        results.forEach(result -> {
+            assertEquals(UserImportResultDTO.CREATED, result.getStatus());
+            assertNotNull(result.getId());
+        });
+        assertEquals(USERS, userRepository.count());
+        assertEquals(2L * USERS, statistics.getEntityInsertCount());
+        // Usuarios y teléfonos se envían en lotes de 50, no una sentencia por fila
+        assertTrue(statistics.getPrepareStatementCount() < 20, "sentencias: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void importUsers_ReportsInvalidAndDuplicatedCsvRecords() {
+        userImportService.importUsers(Stream.of(
+                "name,email,password,phones",
+                "Existente,existente@test.com,123Acb144*,1234567:1:57"), ImportFormat.CSV, result -> { });
+
+        List<UserImportResultDTO> results = importUsers(Stream.of(
+                "name,email,password,phones",
+                "\"Arévalo, Camilo\",camilo@test.com,123Acb144*,1234567:1:57;7654321:2:56",
+                "Invalido,correo-invalido,123Acb144*,1234567:1:57",
+                "Debil,debil@test.com,abc,1234567:1:57",
+                "Repetido,camilo@test.com,123Acb144*,1234567:1:57",
+                "Existente,existente@test.com,123Acb144*,1234567:1:57",
+                "",
+                "Columnas,faltan"), ImportFormat.CSV);
+
+        assertEquals(6, results.size());
+        assertEquals(UserImportResultDTO.CREATED, results.get(0).getStatus());
+        assertEquals(2, results.get(0).getLine());
+        for (int i = 1; i < results.size(); i++) {
+            assertEquals(UserImportResultDTO.ERROR, results.get(i).getStatus());
+            assertNotNull(results.get(i).getMensaje());
+        }
+        assertEquals(List.of(3L, 4L, 5L, 6L, 8L), results.subList(1, results.size()).stream()
+                .map(UserImportResultDTO::getLine).collect(Collectors.toList()));
+        assertEquals(2, userRepository.findByEmail("camilo@test.com").get().getPhones().size());
+        assertEquals("Arévalo, Camilo", userRepository.findByEmail("camilo@test.com").get().getName());
+    }
+
+    @Test
+    void importUsers_ReportsNullAndArrayNdjsonLinesWithoutStoppingTheImport() {
+        String user = "{\"name\":\"User\",\"email\":\"%s@test.com\",\"password\":\"123Acb144*\",\"phones\":[{\"number\":\"1234567\",\"citycode\":\"1\",\"countrycode\":\"57\"}]}";
+
+        List<UserImportResultDTO> results = importUsers(Stream.of(
+                String.format(user, "antes"),
+                "null",
+                "[" + String.format(user, "arreglo") + "]",
+                String.format(user, "despues")), ImportFormat.NDJSON);
+
+        assertEquals(4, results.size());
+        assertEquals(UserImportResultDTO.CREATED, results.get(0).getStatus());
+        assertEquals(UserImportResultDTO.ERROR, results.get(1).getStatus());
+        assertEquals(UserImportResultDTO.ERROR, results.get(2).getStatus());
+        assertEquals(UserImportResultDTO.CREATED, results.get(3).getStatus());
+        assertNotNull(results.get(1).getMensaje());
+        assertNotNull(results.get(2).getMensaje());
+        assertEquals(2, userRepository.count());
+    }
+
+    private List<UserImportResultDTO> importUsers(Stream<String> lines, ImportFormat format) {
+        List<UserImportResultDTO> results = new ArrayList<>();
+        userImportService.importUsers(lines, format, results::add);
+        results.sort(Comparator.comparingLong(UserImportResultDTO::getLine));
+        return results;
+    }
+}
@@ -0,0 +1,96 @@
+package com.nisum.exam.userapi.service;
+
+
+import com.nisum.exam.userapi.dto.response.UserResponseDTO;
+import com.nisum.exam.userapi.exception.EmailAlreadyExistsException;
+import com.nisum.exam.userapi.model.Phone;
+import com.nisum.exam.userapi.model.User;
+import com.nisum.exam.userapi.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:duplicateemail",
+        "password.encoder.strength=4"
+})
+public class UserServiceDuplicateEmailTest {
+
+    private static final int SIGNUPS = 8;
+
+    @Autowired
+    private UserServiceInterface userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void saveUser_RejectsSameEmailWithDifferentCase() {
+        userService.saveUser(buildUser("camilo@test.com")).join();
+
+        CompletionException ex = assertThrows(CompletionException.class,
+                () -> userService.saveUser(buildUser("Camilo@Test.com")).join());
+
+        assertInstanceOf(EmailAlreadyExistsException.class, ex.getCause());
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    void saveUser_AcceptsOnlyOneOfConcurrentSignups() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(SIGNUPS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CompletableFuture<UserResponseDTO>>> submitted = new ArrayList<>();
+        for (int i = 0; i < SIGNUPS; i++) {
+            submitted.add(executor.submit(() -> {
+                start.await();
+                return userService.saveUser(buildUser("concurrent@test.com"));
+            }));
+        }
+        start.countDown();
+
+        int created = 0;
+        int duplicated = 0;
+        for (Future<CompletableFuture<UserResponseDTO>> future : submitted) {
+            try {
+                future.get().join();
+                created++;
+            } catch (CompletionException ex) {
+                assertInstanceOf(EmailAlreadyExistsException.class, ex.getCause());
+                duplicated++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, created);
+        assertEquals(SIGNUPS - 1, duplicated);
+        assertEquals(1, userRepository.count());
+    }
+
+    private User buildUser(String email) {
+        return User.builder()
+                .name("Camilo")
+                .email(email)
+                .password("123Acb144*")
+                .phones(List.of(Phone.builder().number("1234567").citycode("1").countrycode("57").build()))
+                .build();
+    }
+}
@@ -0,0 +1,175 @@
+package com.nisum.exam.userapi.service;
+
+
+import com.nisum.exam.userapi.dto.response.UserPageResponseDTO;
+import com.nisum.exam.userapi.dto.response.UserResponseDTO;
+import com.nisum.exam.userapi.entity.PhoneEntity;
+import com.nisum.exam.userapi.entity.UserEntity;
+import com.nisum.exam.userapi.model.Phone;
+import com.nisum.exam.userapi.model.User;
+import com.nisum.exam.userapi.repository.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querycount",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class UserServiceQueryCountTest {
+
+    private static final int USERS = 30;
+
+    @Autowired
+    private UserServiceInterface userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<UserEntity> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(buildUserEntity("user" + i + "@test.com"));
+        }
+        userRepository.saveAll(users);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getUsers_LoadsPageAndPhonesInTwoStatements() {
+        UserPageResponseDTO page = userService.getUsers(null, USERS);
+
+        assertEquals(USERS, page.getUsers().size());
+        page.getUsers().forEach(user -> assertEquals(2, user.getPhones().size()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getUsers_SecondCallIsServedFromSecondLevelCache() {
+        userService.getUsers(null, USERS);
+        statistics.clear();
+
+        UserPageResponseDTO page = userService.getUsers(null, USERS);
+
+        assertEquals(USERS, page.getUsers().size());
+        page.getUsers().forEach(user -> assertEquals(2, user.getPhones().size()));
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void findByEmail_SecondLookupIsServedFromSecondLevelCache() {
+        userRepository.findByEmail("user0@test.com");
+        statistics.clear();
+
+        assertTrue(userRepository.findByEmail("user0@test.com").isPresent());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getUsers_WriteInvalidatesCachedPages() {
+        userService.getUsers(null, USERS);
+        UUID id = userRepository.findByEmail("user0@test.com").orElseThrow().getId();
+        userService.patchUser(id, User.builder().name("Nuevo").build()).join();
+        statistics.clear();
+
+        UserPageResponseDTO page = userService.getUsers(null, USERS);
+
+        assertTrue(page.getUsers().stream().anyMatch(user -> "Nuevo".equals(user.getName())));
+        assertEquals(0, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void getUser_LoadsUserAndPhonesInOneStatementWithoutPassword() {
+        UUID id = userRepository.findByEmail("user0@test.com").orElseThrow().getId();
+        statistics.clear();
+
+        UserResponseDTO user = userService.getUser(id);
+
+        assertEquals("user0@test.com", user.getEmail());
+        assertEquals(2, user.getPhones().size());
+        assertNull(user.getPassword());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        userService.getUserByEmail("USER0@test.com");
+        userService.getUserByEmail("USER0@test.com");
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void streamUsers_LoadsUsersAndPhonesInOneStatement() {
+        List<UserResponseDTO> users = new ArrayList<>();
+        userService.streamUsers(users::add);
+
+        assertEquals(USERS, users.size());
+        users.forEach(user -> assertEquals(2, user.getPhones().size()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void patchUser_UpdatesChangedColumnsAndOnlyTheReplacedPhone() {
+        UUID id = userRepository.findByEmail("user0@test.com").orElseThrow().getId();
+        statistics.clear();
+
+        User changes = User.builder()
+                .name("Nuevo")
+                .phones(List.of(new Phone("1", "1", "57", null), new Phone("3", "1", "57", null)))
+                .build();
+        UserResponseDTO user = userService.patchUser(id, changes).join();
+
+        assertEquals("Nuevo", user.getName());
+        assertEquals(1, statistics.getEntityUpdateCount());
+        assertEquals(1, statistics.getEntityDeleteCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+    }
+
+    private UserEntity buildUserEntity(String email) {
+        UserEntity userEntity = new UserEntity();
+        userEntity.setId(UUID.randomUUID());
+        userEntity.setName("Test");
+        userEntity.setEmail(email);
+        userEntity.setPassword("pass");
+        userEntity.setCreated(LocalDate.now());
+        userEntity.setToken("token");
+        userEntity.setIsActive(true);
+        userEntity.setPhones(List.of(buildPhone(userEntity, "1"), buildPhone(userEntity, "2")));
+        return userEntity;
+    }
+
+    private PhoneEntity buildPhone(UserEntity userEntity, String number) {
+        PhoneEntity phoneEntity = new PhoneEntity();
+        phoneEntity.setNumber(number);
+        phoneEntity.setCityCode("1");
+        phoneEntity.setCountryCode("57");
+        phoneEntity.setUser(userEntity);
+        return phoneEntity;
+    }
+}
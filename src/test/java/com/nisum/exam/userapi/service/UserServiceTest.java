@@ -3,30 +3,49 @@ package com.nisum.exam.userapi.service;
 
 import com.nisum.exam.userapi.config.EmailProperties;
 import com.nisum.exam.userapi.config.PasswordProperties;
+import com.nisum.exam.userapi.dto.projection.UserRowDTO;
+import com.nisum.exam.userapi.dto.response.UserPageResponseDTO;
 import com.nisum.exam.userapi.dto.response.UserResponseDTO;
+import com.nisum.exam.userapi.entity.PhoneEntity;
 import com.nisum.exam.userapi.entity.UserEntity;
+import com.nisum.exam.userapi.exception.ConcurrentUserModificationException;
 import com.nisum.exam.userapi.exception.EmailAlreadyExistsException;
+import com.nisum.exam.userapi.exception.InvalidCursorException;
 import com.nisum.exam.userapi.exception.InvalidEmailException;
 import com.nisum.exam.userapi.exception.InvalidPasswordException;
 import com.nisum.exam.userapi.exception.UserNotFoundException;
+import com.nisum.exam.userapi.exception.UserVersionMismatchException;
 import com.nisum.exam.userapi.model.Phone;
 import com.nisum.exam.userapi.model.User;
+import com.nisum.exam.userapi.model.UserSearchFilter;
 import com.nisum.exam.userapi.repository.PhoneRepository;
 import com.nisum.exam.userapi.repository.UserRepository;
 import com.nisum.exam.userapi.service.impl.UserServiceInterfaceImpl;
+import com.nisum.exam.userapi.util.CursorUtil;
+import com.nisum.exam.userapi.util.FormatValidator;
 import com.nisum.exam.userapi.util.JwtUtil;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -38,10 +57,12 @@ public class UserServiceTest {
 
     private UserRepository userRepository;
     private PhoneRepository phoneRepository;
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
     private JwtUtil jwtUtil;
     private EmailProperties emailProperties;
     private PasswordProperties passwordProperties;
+    private EntityManager entityManager;
+    private UserCacheService userCacheService;
 
     private UserServiceInterfaceImpl userService;
 
@@ -49,33 +70,107 @@ public class UserServiceTest {
     void setUp() {
         userRepository = mock(UserRepository.class);
         phoneRepository = mock(PhoneRepository.class);
-        passwordEncoder = mock(PasswordEncoder.class);
+        passwordHashingService = mock(PasswordHashingService.class);
         jwtUtil = mock(JwtUtil.class);
         emailProperties = mock(EmailProperties.class);
         passwordProperties = mock(PasswordProperties.class);
+        entityManager = mock(EntityManager.class);
+        userCacheService = mock(UserCacheService.class);
 
         userService = new UserServiceInterfaceImpl(
-                userRepository, phoneRepository, passwordEncoder,
-                jwtUtil, emailProperties, passwordProperties
+                userRepository, phoneRepository, passwordHashingService,
+                jwtUtil, new FormatValidator(emailProperties, passwordProperties), entityManager, userCacheService,
+                TransactionOperations.withoutTransaction(), Runnable::run
         );
     }
 
     @Test
     void getUsers_ReturnsUserResponseDTOList() {
-        UserEntity entity = new UserEntity();
-        entity.setId(UUID.randomUUID().toString());
-        entity.setEmail("test@test.com");
-        entity.setName("Test");
-        entity.setPassword("pass");
-        entity.setCreated(LocalDate.now());
-        entity.setLastLogin(LocalDate.now());
+        UserEntity entity = buildUserEntity("test@test.com");
+
+        when(userRepository.findByOrderByIdAsc(PageRequest.of(0, 11))).thenReturn(List.of(entity));
+
+        UserPageResponseDTO result = userService.getUsers(null, 10);
+
+        assertEquals(1, result.getUsers().size());
+        assertEquals("test@test.com", result.getUsers().get(0).getEmail());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getUsers_ReturnsNextCursorWhenMoreUsersExist() {
+        UserEntity first = buildUserEntity("first@test.com");
+        UserEntity second = buildUserEntity("second@test.com");
+        UserEntity third = buildUserEntity("third@test.com");
+        UUID previousId = UUID.randomUUID();
+        String cursor = CursorUtil.encode(previousId);
+
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(previousId, PageRequest.of(0, 3)))
+                .thenReturn(List.of(first, second, third));
+
+        UserPageResponseDTO result = userService.getUsers(cursor, 2);
+
+        assertEquals(2, result.getUsers().size());
+        assertEquals(second.getId(), CursorUtil.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void searchUsers_PassesFilterAndDecodedCursorAndReturnsNextCursor() {
+        UserEntity first = buildUserEntity("first@test.com");
+        UserEntity second = buildUserEntity("second@test.com");
+        UUID previousId = UUID.randomUUID();
+        UserSearchFilter filter = UserSearchFilter.builder().active(true).countryCode("57").build();
+
+        when(userRepository.search(filter, previousId, 2)).thenReturn(List.of(first, second));
+
+        UserPageResponseDTO result = userService.searchUsers(filter, CursorUtil.encode(previousId), 1);
+
+        assertEquals(1, result.getUsers().size());
+        assertEquals(first.getId(), CursorUtil.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void getUsers_ThrowsInvalidCursorException() {
+        assertThrows(InvalidCursorException.class, () -> userService.getUsers("%%%", 10));
+        assertThrows(InvalidCursorException.class, () -> userService.getUsers("AAAA", 10));
+    }
+
+    @Test
+    void getUserByEmail_NormalizesEmailAndGroupsPhoneRows() {
+        UUID id = UUID.randomUUID();
+        when(userRepository.findRowsByEmail("test@test.com")).thenReturn(List.of(
+                new UserRowDTO(id, "Test", "test@test.com", LocalDate.now(), null, null, "token", true, 2L, 1L, "1", "1", "57"),
+                new UserRowDTO(id, "Test", "test@test.com", LocalDate.now(), null, null, "token", true, 2L, 2L, "2", "1", "57")));
+
+        UserResponseDTO result = userService.getUserByEmail(" Test@Test.com ");
+
+        assertEquals(id, result.getId());
+        assertEquals(2, result.getPhones().size());
+        assertEquals(2L, result.getVersion());
+        assertNull(result.getPassword());
+    }
+
+    @Test
+    void getUser_ThrowsUserNotFoundException() {
+        UUID id = UUID.randomUUID();
+        when(userRepository.findRowsById(id)).thenReturn(List.of());
 
-        when(userRepository.findAll()).thenReturn(List.of(entity));
+        assertThrows(UserNotFoundException.class, () -> userService.getUser(id));
+    }
+
+    @Test
+    void streamUsers_SendsEveryUserAndDetachesIt() {
+        UserEntity first = buildUserEntity("first@test.com");
+        UserEntity second = buildUserEntity("second@test.com");
 
-        List<UserResponseDTO> result = userService.getUsers();
+        when(userRepository.streamAllOrderById()).thenReturn(Stream.of(first, second));
 
-        assertEquals(1, result.size());
-        assertEquals("test@test.com", result.get(0).getEmail());
+        List<UserResponseDTO> received = new ArrayList<>();
+        userService.streamUsers(received::add);
+
+        assertEquals(2, received.size());
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
     }
 
     @Test
@@ -94,16 +189,21 @@ public class UserServiceTest {
 
         when(emailProperties.getRegex()).thenReturn("^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$");
         when(passwordProperties.getRegex()).thenReturn("^(?=.*\\d)(?=.*[a-z])(?=.*[A-Z]).{8,16}$");
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.empty());
-        when(passwordEncoder.encode(any())).thenReturn("encodedPass");
+        when(passwordHashingService.encode(any())).thenReturn(CompletableFuture.completedFuture("encodedPass"));
         when(jwtUtil.generateToken(any())).thenReturn("jwt-token");
-        when(userRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
-        UserResponseDTO response = userService.saveUser(user);
+        UserResponseDTO response = userService.saveUser(user).join();
 
+        ArgumentCaptor<UserEntity> persisted = ArgumentCaptor.forClass(UserEntity.class);
+        verify(entityManager).persist(persisted.capture());
         assertEquals("test@test.com", response.getEmail());
         assertEquals("jwt-token", response.getToken());
-        verify(userRepository).save(any());
+        assertEquals(persisted.getValue().getId(), response.getId());
+        assertEquals("123456789", response.getPhones().get(0).getNumber());
+        assertSame(persisted.getValue(), persisted.getValue().getPhones().get(0).getUser());
+        verify(entityManager).flush();
+        verify(userCacheService, never()).findByEmail(any());
+        verify(userCacheService).evict("test@test.com");
     }
 
     @Test
@@ -129,15 +229,37 @@ public class UserServiceTest {
     }
 
     @Test
-    void saveUser_ThrowsEmailAlreadyExistsException() {
+    void saveUser_NormalizesEmail() {
         User user = new User();
-        user.setEmail("test@test.com");
+        user.setEmail("  Test@Test.COM ");
         user.setPassword("Pass123!");
+        user.setPhones(List.of());
 
         when(emailProperties.getRegex()).thenReturn(".*");
-        when(userRepository.findByEmail("test@test.com")).thenReturn(Optional.of(new UserEntity()));
+        when(passwordProperties.getRegex()).thenReturn(".*");
+        when(passwordHashingService.encode(any())).thenReturn(CompletableFuture.completedFuture("encodedPass"));
+
+        UserResponseDTO response = userService.saveUser(user).join();
 
-        assertThrows(EmailAlreadyExistsException.class, () -> userService.saveUser(user));
+        assertEquals("test@test.com", response.getEmail());
+    }
+
+    @Test
+    void saveUser_ThrowsEmailAlreadyExistsExceptionOnUniqueIndexViolation() {
+        User user = new User();
+        user.setEmail("test@test.com");
+        user.setPassword("Pass123!");
+        user.setPhones(List.of());
+
+        when(emailProperties.getRegex()).thenReturn(".*");
+        when(passwordProperties.getRegex()).thenReturn(".*");
+        when(passwordHashingService.encode(any())).thenReturn(CompletableFuture.completedFuture("encodedPass"));
+        doThrow(new PersistenceException(new ConstraintViolationException("duplicado", new SQLException(),
+                "PUBLIC.UX_USERS_EMAIL_INDEX_4 ON PUBLIC.USERS(EMAIL)"))).when(entityManager).flush();
+
+        CompletionException ex = assertThrows(CompletionException.class, () -> userService.saveUser(user).join());
+        assertInstanceOf(EmailAlreadyExistsException.class, ex.getCause());
+        verify(userCacheService, never()).evict(any());
     }
 
     @Test
@@ -147,7 +269,6 @@ public class UserServiceTest {
         user.setPassword("bad");
 
         when(emailProperties.getRegex()).thenReturn(".*");
-        when(userRepository.findByEmail("test@test.com")).thenReturn(Optional.empty());
         when(passwordProperties.getRegex()).thenReturn("^(?=.*[A-Za-z])(?=.*\\d)[A-Za-z\\d]{6,}$");
 
         assertThrows(InvalidPasswordException.class, () -> userService.saveUser(user));
@@ -155,11 +276,9 @@ public class UserServiceTest {
 
     @Test
     void updateUser_SuccessfullyUpdatesUser() {
-        UserEntity existing = new UserEntity();
-        existing.setId(UUID.randomUUID().toString());
-        existing.setEmail("test@test.com");
-        existing.setCreated(LocalDate.now());
-        existing.setToken("old-token");
+        UserEntity entity = buildUserEntity("test@test.com");
+        entity.setToken("old-token");
+        User existing = User.builder().id(entity.getId()).email("test@test.com").build();
 
         User user = new User();
         user.setEmail("test@test.com");
@@ -173,24 +292,210 @@ public class UserServiceTest {
         phone.setCountrycode("57");
         user.setPhones(List.of(phone));
 
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(existing));
-        when(passwordEncoder.encode(any())).thenReturn("encodedPass");
-        when(userRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userCacheService.findByEmail(user.getEmail())).thenReturn(Optional.of(existing));
+        when(passwordHashingService.encodeIfChanged(any(), any())).thenReturn(CompletableFuture.completedFuture("encodedPass"));
+        when(entityManager.find(UserEntity.class, entity.getId())).thenReturn(entity);
 
-        UserResponseDTO result = userService.updateUser(user);
+        UserResponseDTO result = userService.updateUser(user).join();
 
         assertEquals("test@test.com", result.getEmail());
+        assertEquals("Updated Name", result.getName());
         assertEquals("encodedPass", result.getPassword());
+        assertEquals("old-token", result.getToken());
+        assertEquals(1, entity.getPhones().size());
+        assertSame(entity, entity.getPhones().get(0).getUser());
+        verify(userRepository, never()).save(any());
+        verify(userCacheService).evict("test@test.com");
+    }
+
+    @Test
+    void updateUser_KeepsExistingPhonesAndReplacesOnlyChangedOnes() {
+        UserEntity entity = buildUserEntity("test@test.com");
+        PhoneEntity kept = buildPhoneEntity(entity, "111");
+        entity.setPhones(new ArrayList<>(List.of(kept, buildPhoneEntity(entity, "222"))));
+        User existing = User.builder().id(entity.getId()).email("test@test.com").build();
+        User user = User.builder().email("test@test.com").password("Pass123!").name("Test")
+                .phones(List.of(new Phone("111", "1", "57", null), new Phone("333", "1", "57", null)))
+                .build();
+
+        when(userCacheService.findByEmail(user.getEmail())).thenReturn(Optional.of(existing));
+        when(passwordHashingService.encodeIfChanged(any(), any())).thenReturn(CompletableFuture.completedFuture("encodedPass"));
+        when(entityManager.find(UserEntity.class, entity.getId())).thenReturn(entity);
+
+        userService.updateUser(user).join();
+
+        assertEquals(2, entity.getPhones().size());
+        assertSame(kept, entity.getPhones().get(0));
+        assertEquals("333", entity.getPhones().get(1).getNumber());
+    }
+
+    @Test
+    void updateUser_IgnoresStaleCachedVersionWithoutIfMatch() {
+        // La cache quedó con la versión 1 mientras otra solicitud ya llevó el usuario a la versión 3
+        UserEntity entity = buildUserEntity("test@test.com");
+        entity.setVersion(3L);
+        User stale = User.builder().id(entity.getId()).email("test@test.com").version(1L).build();
+        User user = User.builder().email("test@test.com").password("Pass123!").name("Nuevo").phones(List.of()).build();
+
+        when(userCacheService.findByEmail(user.getEmail())).thenReturn(Optional.of(stale));
+        when(passwordHashingService.encodeIfChanged(any(), any())).thenReturn(CompletableFuture.completedFuture("encodedPass"));
+        when(entityManager.find(UserEntity.class, entity.getId())).thenReturn(entity);
+
+        UserResponseDTO result = userService.updateUser(user).join();
+
+        assertEquals("Nuevo", result.getName());
+        assertEquals("Nuevo", entity.getName());
+        verify(userCacheService).evict("test@test.com");
+    }
+
+    @Test
+    void updateUser_ThrowsUserVersionMismatchExceptionWhenIfMatchIsStale() {
+        UserEntity entity = buildUserEntity("test@test.com");
+        entity.setVersion(2L);
+        User existing = User.builder().id(entity.getId()).email("test@test.com").version(2L).build();
+        User user = User.builder().email("test@test.com").password("Pass123!").name("Nuevo").phones(List.of()).version(1L).build();
+
+        when(userCacheService.findByEmail(user.getEmail())).thenReturn(Optional.of(existing));
+        when(passwordHashingService.encodeIfChanged(any(), any())).thenReturn(CompletableFuture.completedFuture("encodedPass"));
+        when(entityManager.find(UserEntity.class, entity.getId())).thenReturn(entity);
+
+        CompletionException ex = assertThrows(CompletionException.class, () -> userService.updateUser(user).join());
+        assertInstanceOf(UserVersionMismatchException.class, ex.getCause());
+        assertEquals("Test", entity.getName());
+    }
+
+    @Test
+    void updateUser_ThrowsConcurrentUserModificationExceptionWithoutIfMatch() {
+        UserEntity entity = buildUserEntity("test@test.com");
+        User existing = User.builder().id(entity.getId()).email("test@test.com").version(2L).build();
+        User user = User.builder().email("test@test.com").password("Pass123!").phones(List.of()).build();
+
+        when(userCacheService.findByEmail(user.getEmail())).thenReturn(Optional.of(existing));
+        when(passwordHashingService.encodeIfChanged(any(), any())).thenReturn(CompletableFuture.completedFuture("encodedPass"));
+        when(entityManager.find(UserEntity.class, entity.getId())).thenReturn(entity);
+        doThrow(new ObjectOptimisticLockingFailureException(UserEntity.class, entity.getId())).when(entityManager).flush();
+
+        CompletionException ex = assertThrows(CompletionException.class, () -> userService.updateUser(user).join());
+        assertInstanceOf(ConcurrentUserModificationException.class, ex.getCause());
+        verify(userCacheService).evict("test@test.com");
     }
 
+    @Test
+    void updateUser_ThrowsUserNotFoundExceptionWhenCachedUserChangedEmail() {
+        UserEntity entity = buildUserEntity("other@test.com");
+        User stale = User.builder().id(entity.getId()).email("test@test.com").build();
+        User user = User.builder().email("test@test.com").password("Pass123!").phones(List.of()).build();
+
+        when(userCacheService.findByEmail(user.getEmail())).thenReturn(Optional.of(stale));
+        when(passwordHashingService.encodeIfChanged(any(), any())).thenReturn(CompletableFuture.completedFuture("encodedPass"));
+        when(entityManager.find(UserEntity.class, entity.getId())).thenReturn(entity);
+
+        CompletionException ex = assertThrows(CompletionException.class, () -> userService.updateUser(user).join());
+        assertInstanceOf(UserNotFoundException.class, ex.getCause());
+        verify(userCacheService).evict("test@test.com");
+    }
+
+    @Test
+    void patchUser_ThrowsUserVersionMismatchExceptionWhenIfMatchIsStale() {
+        UserEntity entity = buildUserEntity("test@test.com");
+        entity.setVersion(3L);
+
+        when(entityManager.find(UserEntity.class, entity.getId())).thenReturn(entity);
+
+        CompletionException ex = assertThrows(CompletionException.class,
+                () -> userService.patchUser(entity.getId(), User.builder().name("Nuevo").version(2L).build()).join());
+        assertInstanceOf(UserVersionMismatchException.class, ex.getCause());
+        assertEquals("Test", entity.getName());
+    }
 
     @Test
     void updateUser_ThrowsUserNotFoundException() {
         User user = new User();
         user.setEmail("nonexistent@test.com");
 
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.empty());
+        when(userCacheService.findByEmail(user.getEmail())).thenReturn(Optional.empty());
 
         assertThrows(UserNotFoundException.class, () -> userService.updateUser(user));
     }
+
+    @Test
+    void patchUser_ChangesOnlySentFieldsWithoutHashing() {
+        UserEntity entity = buildUserEntity("test@test.com");
+        entity.setPassword("storedHash");
+        User changes = User.builder().name("Nuevo").build();
+
+        when(entityManager.find(UserEntity.class, entity.getId())).thenReturn(entity);
+
+        UserResponseDTO result = userService.patchUser(entity.getId(), changes).join();
+
+        assertEquals("Nuevo", result.getName());
+        assertEquals("test@test.com", result.getEmail());
+        assertEquals("storedHash", entity.getPassword());
+        verifyNoInteractions(passwordHashingService);
+        verify(entityManager, never()).merge(any());
+        verify(userCacheService).evict("test@test.com");
+    }
+
+    @Test
+    void patchUser_KeepsExistingPhonesAndReplacesOnlyChangedOnes() {
+        UserEntity entity = buildUserEntity("test@test.com");
+        PhoneEntity kept = buildPhoneEntity(entity, "111");
+        PhoneEntity removed = buildPhoneEntity(entity, "222");
+        entity.setPhones(new ArrayList<>(List.of(kept, removed)));
+        User changes = User.builder()
+                .phones(List.of(new Phone("111", "1", "57", null), new Phone("333", "1", "57", null)))
+                .build();
+
+        when(entityManager.find(UserEntity.class, entity.getId())).thenReturn(entity);
+
+        userService.patchUser(entity.getId(), changes).join();
+
+        assertEquals(2, entity.getPhones().size());
+        assertSame(kept, entity.getPhones().get(0));
+        assertEquals("333", entity.getPhones().get(1).getNumber());
+        assertSame(entity, entity.getPhones().get(1).getUser());
+    }
+
+    @Test
+    void patchUser_EncodesPasswordOnlyWhenSent() {
+        UserEntity entity = buildUserEntity("test@test.com");
+        User changes = User.builder().password("Pass123!").build();
+
+        when(passwordProperties.getRegex()).thenReturn(".*");
+        when(passwordHashingService.encode("Pass123!")).thenReturn(CompletableFuture.completedFuture("encodedPass"));
+        when(entityManager.find(UserEntity.class, entity.getId())).thenReturn(entity);
+
+        userService.patchUser(entity.getId(), changes).join();
+
+        assertEquals("encodedPass", entity.getPassword());
+    }
+
+    @Test
+    void patchUser_ThrowsUserNotFoundException() {
+        UUID id = UUID.randomUUID();
+
+        CompletionException ex = assertThrows(CompletionException.class,
+                () -> userService.patchUser(id, User.builder().name("Nuevo").build()).join());
+        assertInstanceOf(UserNotFoundException.class, ex.getCause());
+    }
+
+    private PhoneEntity buildPhoneEntity(UserEntity userEntity, String number) {
+        PhoneEntity phoneEntity = new PhoneEntity();
+        phoneEntity.setNumber(number);
+        phoneEntity.setCityCode("1");
+        phoneEntity.setCountryCode("57");
+        phoneEntity.setUser(userEntity);
+        return phoneEntity;
+    }
+
+    private UserEntity buildUserEntity(String email) {
+        UserEntity entity = new UserEntity();
+        entity.setId(UUID.randomUUID());
+        entity.setEmail(email);
+        entity.setName("Test");
+        entity.setPassword("pass");
+        entity.setCreated(LocalDate.now());
+        entity.setLastLogin(LocalDate.now());
+        return entity;
+    }
 }
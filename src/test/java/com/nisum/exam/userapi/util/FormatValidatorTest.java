@@ -0,0 +1,93 @@
+package com.nisum.exam.userapi.util;
+
+
+import com.nisum.exam.userapi.config.EmailProperties;
+import com.nisum.exam.userapi.config.PasswordProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static com.nisum.exam.userapi.util.Constants.EMAIL_REGEX;
+import static com.nisum.exam.userapi.util.Constants.PWD_REGEX;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FormatValidatorTest {
+
+    private static final List<String> EMAILS = List.of(
+            "camilo@gmail.cl", "a@b.co", "a.b_c%d+e-f@sub.dominio.com", "a@b.c", "a@.cl", "@dominio.cl",
+            "a@dominio", "a@dominio.c1", "a@@dominio.cl", "a@dom..cl", "a@dom.cl.", "a b@dominio.cl",
+            "ñandu@dominio.cl", "a@dominio.CL", "a@-.cl", "a@dominio.cl\n", "", "a@b..cl");
+
+    private static final List<String> PASSWORDS = List.of(
+            "123Acb144*", "Abc123!@", "abc12345", "ABC12345", "Abcdefgh", "Ab1", "Abcdefgh12345678",
+            "Abcdefgh123456789", "Abc12345\n", "Abc 1234", "Abc1234 x", "Abc1234😀", "😀😀😀😀😀😀Ab1", "");
+
+    private EmailProperties emailProperties;
+    private PasswordProperties passwordProperties;
+    private FormatValidator formatValidator;
+
+    @BeforeEach
+    void setUp() {
+        emailProperties = new EmailProperties();
+        emailProperties.setRegex(EMAIL_REGEX);
+        passwordProperties = new PasswordProperties();
+        passwordProperties.setRegex(PWD_REGEX);
+        formatValidator = new FormatValidator(emailProperties, passwordProperties);
+        formatValidator.compile();
+    }
+
+    @Test
+    void isDefaultEmail_MatchesEmailRegex() {
+        Pattern pattern = Pattern.compile(EMAIL_REGEX);
+        EMAILS.forEach(email ->
+                assertEquals(pattern.matcher(email).matches(), FormatValidator.isDefaultEmail(email), email));
+        randomStrings("aZ09._%+-@", 20_000).forEach(email ->
+                assertEquals(pattern.matcher(email).matches(), FormatValidator.isDefaultEmail(email), email));
+    }
+
+    @Test
+    void isDefaultPassword_MatchesPasswordRegex() {
+        Pattern pattern = Pattern.compile(PWD_REGEX);
+        PASSWORDS.forEach(password ->
+                assertEquals(pattern.matcher(password).matches(), FormatValidator.isDefaultPassword(password), password));
+        randomStrings("aZ9*\n ", 20_000).forEach(password ->
+                assertEquals(pattern.matcher(password).matches(), FormatValidator.isDefaultPassword(password), password));
+    }
+
+    @Test
+    void isValidEmail_RecompilesWhenPropertyChanges() {
+        assertTrue(formatValidator.isValidEmail("camilo@gmail.cl"));
+
+        emailProperties.setRegex("^[a-z]+@nisum\\.com$");
+
+        assertFalse(formatValidator.isValidEmail("camilo@gmail.cl"));
+        assertTrue(formatValidator.isValidEmail("camilo@nisum.com"));
+    }
+
+    @Test
+    void isValidPassword_UsesConfiguredRegex() {
+        passwordProperties.setRegex("^\\d{4}$");
+
+        assertTrue(formatValidator.isValidPassword("1234"));
+        assertFalse(formatValidator.isValidPassword("123Acb144*"));
+    }
+
+    private List<String> randomStrings(String alphabet, int count) {
+        Random random = new Random(42);
+        String[] result = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = random.nextInt(20);
+            for (int j = 0; j < length; j++) {
+                builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            result[i] = builder.toString();
+        }
+        return List.of(result);
+    }
+}
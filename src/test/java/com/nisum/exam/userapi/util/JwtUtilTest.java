@@ -0,0 +1,83 @@
+package com.nisum.exam.userapi.util;
+
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JwtUtilTest {
+
+    private static final String SECRET = "5YbV1DrDnNiY8UBoXQzo7huhj7d+/GCEbqYHOrFzVSH0cTYIKHq8hxkHD0+AhSE9YWFx3BQkgl1JCR90sdi9XQ==";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 100);
+    }
+
+    @Test
+    void validateToken_AcceptsGeneratedTokenForSameEmail() {
+        String token = jwtUtil.generateToken("test@test.com");
+
+        assertTrue(jwtUtil.validateToken(token, "test@test.com"));
+        assertFalse(jwtUtil.validateToken(token, "other@test.com"));
+        assertEquals("test@test.com", jwtUtil.extractEmail(token));
+        assertFalse(jwtUtil.isTokenExpired(token));
+    }
+
+    @Test
+    void parseClaims_ReusesVerifiedClaimsForSameToken() {
+        String token = jwtUtil.generateToken("test@test.com");
+
+        Claims first = jwtUtil.parseClaims(token);
+        Claims second = jwtUtil.parseClaims(token);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void parseClaims_AcceptsTokensSignedWithBase64Secret() {
+        // Formato de firma usado antes de cachear la llave
+        String token = Jwts.builder()
+                .setSubject("legacy@test.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(SignatureAlgorithm.HS512, SECRET)
+                .compact();
+
+        assertEquals("legacy@test.com", jwtUtil.parseClaims(token).getSubject());
+    }
+
+    @Test
+    void parseClaims_RejectsTamperedToken() {
+        String token = jwtUtil.generateToken("test@test.com");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtUtil.parseClaims(tampered));
+    }
+
+    @Test
+    void parseClaims_RejectsExpiredToken() {
+        String token = Jwts.builder()
+                .setSubject("test@test.com")
+                .setExpiration(new Date(System.currentTimeMillis() - 1_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS512)
+                .compact();
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.parseClaims(token));
+    }
+}
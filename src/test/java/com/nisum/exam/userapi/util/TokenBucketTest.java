@@ -0,0 +1,70 @@
+package com.nisum.exam.userapi.util;
+
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryConsume_AllowsBurstUpToCapacityAndReportsWait() {
+        TokenBucket tokenBucket = new TokenBucket(3, 2, 0);
+
+        assertEquals(0, tokenBucket.tryConsume(0));
+        assertEquals(0, tokenBucket.tryConsume(0));
+        assertEquals(0, tokenBucket.tryConsume(0));
+        // Con 2 fichas por segundo la siguiente llega en medio segundo
+        assertEquals(SECOND / 2, tokenBucket.tryConsume(0));
+    }
+
+    @Test
+    void tryConsume_RefillsOverTimeWithoutExceedingCapacity() {
+        TokenBucket tokenBucket = new TokenBucket(2, 1, 0);
+        tokenBucket.tryConsume(0);
+        tokenBucket.tryConsume(0);
+
+        assertEquals(0, tokenBucket.tryConsume(SECOND));
+        assertTrue(tokenBucket.tryConsume(SECOND) > 0);
+
+        // Tras un minuto sin solicitudes solo se acumula la capacidad
+        long later = 60 * SECOND;
+        assertEquals(0, tokenBucket.tryConsume(later));
+        assertEquals(0, tokenBucket.tryConsume(later));
+        assertTrue(tokenBucket.tryConsume(later) > 0);
+    }
+
+    @Test
+    void tryConsume_ConcurrentCallersNeverExceedCapacity() throws InterruptedException {
+        TokenBucket tokenBucket = new TokenBucket(100, 0.001, 0);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (tokenBucket.tryConsume(0) == 0) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, allowed.get());
+    }
+}
@@ -0,0 +1,43 @@
+package com.nisum.exam.userapi.util;
+
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UuidGeneratorTest {
+
+    @Test
+    void timeOrdered_SetsVersionSevenAndVariant() {
+        UUID uuid = UuidGenerator.timeOrdered();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertNotEquals(uuid, UuidGenerator.timeOrdered());
+    }
+
+    @Test
+    void timeOrdered_StartsWithTimestampAndSortsByCreationTime() {
+        long now = System.currentTimeMillis();
+        UUID earlier = UuidGenerator.timeOrdered(now);
+        UUID later = UuidGenerator.timeOrdered(now + 1);
+
+        assertEquals(now, earlier.getMostSignificantBits() >>> 16);
+        assertTrue(earlier.toString().compareTo(later.toString()) < 0);
+        assertTrue(Long.compareUnsigned(earlier.getMostSignificantBits(), later.getMostSignificantBits()) < 0);
+    }
+
+    @Test
+    void cursor_RoundTripsUuid() {
+        UUID uuid = UuidGenerator.timeOrdered();
+
+        String cursor = CursorUtil.encode(uuid);
+
+        assertEquals(22, cursor.length());
+        assertEquals(uuid, CursorUtil.decode(cursor));
+    }
+}